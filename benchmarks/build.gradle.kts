@@ -0,0 +1,66 @@
+plugins {
+    alias(libs.plugins.freefair.lombok)
+    java
+}
+
+lombok {
+    version = libs.versions.lombok
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(8)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":lib"))
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator)
+    compileOnly(libs.bundles.annontations)
+}
+
+tasks {
+    withType<JavaCompile> {
+        options.encoding = "UTF-8"
+    }
+    
+    /*
+     * Runs the JMH suites and writes one JSON result file per thread count into
+     * `build/results/jmh`, stamped with the run time so that results can be compared over time.
+     *
+     * -Pjmh.jdk=21                 JDK used to run the benchmarks (default: 17)
+     * -Pjmh.threads=1,4,8          thread counts to sweep (default: 1)
+     * -Pjmh.include=Post           benchmark name regex (default: all)
+     * -Pjmh.args="-f 1 -wi 2 -i 3" extra raw JMH arguments
+     */
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks."
+        
+        val jdk = providers.gradleProperty("jmh.jdk").orElse("17")
+        val threads = providers.gradleProperty("jmh.threads").orElse("1")
+        val include = providers.gradleProperty("jmh.include").orElse("")
+        val extra = providers.gradleProperty("jmh.args").orElse("")
+        val output = layout.buildDirectory.dir("results/jmh")
+        
+        javaLauncher = project.javaToolchains.launcherFor {
+            languageVersion = jdk.map { JavaLanguageVersion.of(it) }
+        }
+        
+        classpath = sourceSets.main.get().runtimeClasspath
+        mainClass = "net.llvg.eventlib.benchmark.BenchmarkMain"
+        
+        argumentProviders.add(CommandLineArgumentProvider {
+            listOf(output.get().asFile.absolutePath, threads.get()) +
+              extra.get().split(' ').filter { it.isNotBlank() } +
+              listOf(include.get()).filter { it.isNotBlank() }
+        })
+        
+        outputs.upToDateWhen { false }
+    }
+}
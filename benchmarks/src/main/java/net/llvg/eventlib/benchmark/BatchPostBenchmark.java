@@ -0,0 +1,69 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting a burst of {@code batch} events to a topic with {@code listeners} listeners, either
+ * one {@link EventBus#post(EventTopic, Object)} per event or one
+ * {@link EventBus#postAll(EventTopic, Iterable, EventBus.BatchOrder)} in both orders.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class BatchPostBenchmark {
+    @Param ({ "10", "100" })
+    int listeners;
+    
+    @Param ({ "1000" })
+    int batch;
+    
+    EventBus<String> bus;
+    
+    final EventTopic<Object> topic = EventTopic.of("topic");
+    
+    Object[] events;
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topic, Fixtures.listener(i));
+        }
+        
+        events = new Object[batch];
+        for (int i = 0; i < batch; ++i) events[i] = new Object();
+    }
+    
+    @Benchmark
+    public void postLoop() {
+        for (final Object it : events) bus.post(topic, it);
+    }
+    
+    @Benchmark
+    public void postAllEventMajor() {
+        bus.postAll(topic, events);
+    }
+    
+    @Benchmark
+    public void postAllListenerMajor() {
+        bus.postAll(topic, Arrays.asList(events), EventBus.BatchOrder.LISTENER_MAJOR);
+    }
+}
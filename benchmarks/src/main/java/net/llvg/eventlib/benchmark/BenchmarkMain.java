@@ -0,0 +1,51 @@
+package net.llvg.eventlib.benchmark;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import lombok.val;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the {@code jmh} task.
+ *
+ * <p>Usage: {@code BenchmarkMain <output dir> <thread counts> [jmh arguments...]}, where
+ * {@code <thread counts>} is a comma separated list. The selected benchmarks are run once per
+ * thread count, and every run is written to {@code <output dir>/jmh-<time>-t<threads>.json}.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() { }
+    
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkMain <output dir> <thread counts> [jmh arguments...]");
+            System.exit(1);
+        }
+        
+        val output = new File(args[0]);
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IllegalStateException("Failed to create " + output);
+        }
+        
+        val parent = new CommandLineOptions(Arrays.copyOfRange(args, 2, args.length));
+        val time = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        
+        for (val it : args[1].split(",")) {
+            val threads = Integer.parseInt(it.trim());
+            val result = new File(output, "jmh-" + time + "-t" + threads + ".json");
+            
+            val options = new OptionsBuilder()
+              .parent(parent)
+              .threads(threads)
+              .resultFormat(ResultFormatType.JSON)
+              .result(result.getAbsolutePath())
+              .build();
+            
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Plugin load and unload: {@code batch} listeners registered on a root topic and unregistered
+ * again, one by one versus through {@link EventBus#batch(java.util.function.Consumer)}.
+ *
+ * <p>The root topic has {@code dependents} subtopics whose snapshots are built, and every
+ * iteration ends with a post to each of them, which pays for the snapshot rebuilds.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class BulkRegistrationBenchmark {
+    @Param ({ "100", "1000" })
+    int batch;
+    
+    @Param ({ "10", "100" })
+    int dependents;
+    
+    EventBus<String> bus;
+    
+    EventTopic<Object> root;
+    
+    final ArrayList<EventTopic<Object>> subtopics = new ArrayList<>();
+    
+    final ArrayList<EventListener<Object>> listeners = new ArrayList<>();
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        root = EventTopic.of("root");
+        
+        subtopics.clear();
+        for (int i = 0; i < dependents; ++i) {
+            val it = EventTopic.<Object>of("sub" + i, root);
+            bus.register(it, Fixtures.listener(i));
+            bus.post(it, event);
+            subtopics.add(it);
+        }
+        
+        listeners.clear();
+        for (int i = 0; i < batch; ++i) listeners.add(Fixtures.listener(i));
+    }
+    
+    @Benchmark
+    public void oneByOne() {
+        val regs = new ArrayList<EventBus.Registration<String>>(batch);
+        for (val it : listeners) regs.add(bus.register(root, it));
+        for (val it : subtopics) bus.post(it, event);
+        
+        for (val it : regs) it.unregister();
+        for (val it : subtopics) bus.post(it, event);
+    }
+    
+    @Benchmark
+    public void batched() {
+        val group = bus.batch(tx -> {
+            for (val it : listeners) tx.register(root, it);
+        });
+        for (val it : subtopics) bus.post(it, event);
+        
+        group.unregister();
+        for (val it : subtopics) bus.post(it, event);
+    }
+}
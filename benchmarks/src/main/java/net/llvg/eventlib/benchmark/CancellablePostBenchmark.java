@@ -0,0 +1,92 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.Cancellable;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting a {@link Cancellable} event to {@code listeners} distinct listeners, the first of which
+ * cancels it or not, next to posting a plain event.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class CancellablePostBenchmark {
+    public static final class Event
+      implements Cancellable
+    {
+        boolean cancel;
+        
+        boolean cancelled;
+        
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public void setCancelled(final boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+    
+    @Param ({ "16", "64" })
+    int listeners;
+    
+    EventBus<String> bus;
+    
+    final EventTopic<Object> topic = EventTopic.of("topic");
+    
+    final Event event = new Event();
+    
+    final Object plain = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        bus.getPhases().link("early", "default");
+        
+        bus.register(
+          topic,
+          "early",
+          it -> {
+              if (it instanceof Event) ((Event) it).cancelled = ((Event) it).cancel;
+          }
+        );
+        for (int i = 1; i < listeners; ++i) {
+            bus.register(topic, Fixtures.listener(i));
+        }
+    }
+    
+    @Benchmark
+    public Object plain() {
+        return bus.post(topic, plain);
+    }
+    
+    @Benchmark
+    public Object notCancelled() {
+        event.cancel = false;
+        return bus.post(topic, event);
+    }
+    
+    @Benchmark
+    public Object cancelled() {
+        event.cancel = true;
+        return bus.post(topic, event);
+    }
+}
@@ -0,0 +1,76 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting by runtime class ({@link EventBus#post(Object)}) through a class hierarchy.
+ *
+ * <p>{@code listeners} listeners are spread over the {@code depth} classes of the chain, and
+ * events of the deepest class are posted, so every post resolves the class topic and
+ * dispatches the merged snapshot of the whole chain.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class ClassPostBenchmark {
+    @Param ({ "1", "10", "100" })
+    int listeners;
+    
+    @Param ({ "1", "4", "16" })
+    int depth;
+    
+    EventBus<String> bus;
+    
+    EventTopic<Object> topic;
+    
+    Object event;
+    
+    @Setup
+    @SuppressWarnings ("unchecked")
+    public void setup() throws Exception {
+        bus = EventBus.create("default");
+        
+        val chain = Fixtures.classChain(depth);
+        for (int i = 0; i < listeners; ++i) {
+            bus.register((Class<Object>) chain.get(i % depth), Fixtures.listener(i));
+        }
+        
+        val leaf = chain.get(depth - 1);
+        topic = EventTopic.forClass((Class<Object>) leaf);
+        event = leaf.newInstance();
+    }
+    
+    @Benchmark
+    public Object post() {
+        return bus.post(event);
+    }
+    
+    @Benchmark
+    public @Nullable EventError postAndCatch() {
+        return bus.postAndCatch(event);
+    }
+    
+    @Benchmark
+    public Object postTopic() {
+        return bus.post(topic, event);
+    }
+}
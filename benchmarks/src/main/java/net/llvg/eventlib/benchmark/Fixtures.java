@@ -0,0 +1,131 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import lombok.var;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Shared event types, topic hierarchies and listeners for the benchmarks.
+ */
+@UtilityClass
+public final class Fixtures {
+    public static class L0 { }
+    
+    public static class L1 extends L0 { }
+    
+    public static class L2 extends L1 { }
+    
+    public static class L3 extends L2 { }
+    
+    public static class L4 extends L3 { }
+    
+    public static class L5 extends L4 { }
+    
+    public static class L6 extends L5 { }
+    
+    public static class L7 extends L6 { }
+    
+    public static class L8 extends L7 { }
+    
+    public static class L9 extends L8 { }
+    
+    public static class L10 extends L9 { }
+    
+    public static class L11 extends L10 { }
+    
+    public static class L12 extends L11 { }
+    
+    public static class L13 extends L12 { }
+    
+    public static class L14 extends L13 { }
+    
+    public static class L15 extends L14 { }
+    
+    private final Class<?>[] LEVELS = {
+      L0.class, L1.class, L2.class, L3.class, L4.class, L5.class, L6.class, L7.class,
+      L8.class, L9.class, L10.class, L11.class, L12.class, L13.class, L14.class, L15.class
+    };
+    
+    /**
+     * Returns the classes of a single-inheritance chain, root first.
+     *
+     * @param depth the number of classes in the chain (1 to 16)
+     *
+     * @return the classes of the chain
+     */
+    public List<Class<?>> classChain(final int depth) {
+        if (depth < 1 || depth > LEVELS.length) {
+            throw new IllegalArgumentException("depth must be within [1, " + LEVELS.length + "]: " + depth);
+        }
+        
+        val result = new ArrayList<Class<?>>(depth);
+        for (int i = 0; i < depth; ++i) result.add(LEVELS[i]);
+        return result;
+    }
+    
+    /**
+     * Builds a stack of {@code depth} diamonds with {@link EventTopic#of(EventTopic[])}.
+     *
+     * <p>Each level adds two topics inheriting from the previous join topic, and a new join
+     * topic inheriting from both of them. The last topic of the returned list is the leaf.
+     *
+     * @param depth the number of diamonds
+     *
+     * @return every topic of the hierarchy, root first
+     */
+    @SuppressWarnings ("unchecked")
+    public List<EventTopic<Object>> diamonds(final int depth) {
+        val result = new ArrayList<EventTopic<Object>>(depth * 3 + 1);
+        
+        var join = EventTopic.<Object>of("root");
+        result.add(join);
+        
+        for (int i = 0; i < depth; ++i) {
+            val left = EventTopic.<Object>of("left" + i, join);
+            val right = EventTopic.<Object>of("right" + i, join);
+            join = EventTopic.of("join" + i, left, right);
+            
+            result.add(left);
+            result.add(right);
+            result.add(join);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns a listener performing a token amount of work.
+     *
+     * <p>Listeners come from eight distinct lambda sites, so that dispatch sees the
+     * megamorphic call profile of a real application.
+     *
+     * @param index the index of the listener
+     *
+     * @return the listener
+     */
+    public EventListener<Object> listener(final int index) {
+        switch (index & 7) {
+            case 0:
+                return e -> Blackhole.consumeCPU(1);
+            case 1:
+                return e -> Blackhole.consumeCPU(1);
+            case 2:
+                return e -> Blackhole.consumeCPU(1);
+            case 3:
+                return e -> Blackhole.consumeCPU(1);
+            case 4:
+                return e -> Blackhole.consumeCPU(1);
+            case 5:
+                return e -> Blackhole.consumeCPU(1);
+            case 6:
+                return e -> Blackhole.consumeCPU(1);
+            default:
+                return e -> Blackhole.consumeCPU(1);
+        }
+    }
+}
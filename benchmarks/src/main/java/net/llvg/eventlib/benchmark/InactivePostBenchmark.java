@@ -0,0 +1,54 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting to a topic of {@code listeners} listeners of which only every {@code stride}-th one
+ * is active, the others are paused through {@link EventBus.Registration#setActive(boolean)}.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class InactivePostBenchmark {
+    @Param ({ "100" })
+    int listeners;
+    
+    @Param ({ "1", "10", "100" })
+    int stride;
+    
+    EventBus<String> bus;
+    
+    final EventTopic<Object> topic = EventTopic.of("topic");
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topic, Fixtures.listener(i)).setActive(i % stride == 0);
+        }
+    }
+    
+    @Benchmark
+    public Object post() {
+        return bus.post(topic, event);
+    }
+}
@@ -0,0 +1,78 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting an event addressed to one of {@code entities} entities, each with its own listener,
+ * through a keyed registration per entity or through listeners filtering on the entity.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class KeyedPostBenchmark {
+    public static final class Event {
+        int entity;
+    }
+    
+    @Param ({ "1000", "100000" })
+    int entities;
+    
+    EventBus<String> keyed;
+    
+    EventBus<String> filtered;
+    
+    final EventTopic<Event> topic = EventTopic.of("topic");
+    
+    final Event event = new Event();
+    
+    int next;
+    
+    @Setup
+    public void setup() {
+        keyed = EventBus.create("default");
+        filtered = EventBus.create("default");
+        
+        keyed.register(topic, Fixtures.listener(0));
+        filtered.register(topic, Fixtures.listener(0));
+        for (int i = 0; i < entities; ++i) {
+            final int entity = i;
+            keyed.register(topic, entity, "default", Fixtures.listener(i));
+            filtered.register(
+              topic,
+              it -> {
+                  if (it.entity == entity) it.entity = -1 - entity;
+              }
+            );
+        }
+    }
+    
+    @Benchmark
+    public Object keyed() {
+        next = (next + 7919) % entities;
+        event.entity = next;
+        return keyed.post(topic, next, event);
+    }
+    
+    @Benchmark
+    public Object filtered() {
+        next = (next + 7919) % entities;
+        event.entity = next;
+        return filtered.post(topic, event);
+    }
+}
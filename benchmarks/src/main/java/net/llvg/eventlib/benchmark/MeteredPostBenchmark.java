@@ -0,0 +1,58 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.metrics.DispatchMetrics;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting to a stable topic of {@code listeners} distinct listeners, with or without
+ * {@link EventBus.Builder#metrics(net.llvg.eventlib.api.metrics.MetricsCollector) metrics}.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class MeteredPostBenchmark {
+    @Param ({ "4", "16" })
+    int listeners;
+    
+    @Param ({ "false", "true" })
+    boolean metered;
+    
+    EventBus<String> bus;
+    
+    final EventTopic<Object> topic = EventTopic.of("topic");
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.builder(PhaseManager.builderComparable("default"))
+          .metrics(metered ? new DispatchMetrics() : null)
+          .build();
+        
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topic, Fixtures.listener(i));
+        }
+    }
+    
+    @Benchmark
+    public Object post() {
+        return bus.post(topic, event);
+    }
+}
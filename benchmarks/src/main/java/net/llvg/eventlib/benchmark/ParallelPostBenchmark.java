@@ -0,0 +1,64 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Posting to a single phase of {@code listeners} CPU-heavy listeners, each burning {@code work}
+ * tokens, with the phase delivered {@link PhaseManager.Delivery#SEQUENTIAL sequentially} or
+ * {@link PhaseManager.Delivery#PARALLEL in parallel} on the common pool.
+ *
+ * <p>The parallel variant only pays off with several cores and enough work per listener.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class ParallelPostBenchmark {
+    @Param ({ "8", "64" })
+    int listeners;
+    
+    @Param ({ "100", "10000" })
+    int work;
+    
+    @Param ({ "SEQUENTIAL", "PARALLEL" })
+    PhaseManager.Delivery delivery;
+    
+    EventBus<String> bus;
+    
+    final EventTopic<Object> topic = EventTopic.of("topic");
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        bus.getPhases().setDelivery("default", delivery);
+        
+        final long tokens = work;
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topic, e -> Blackhole.consumeCPU(tokens));
+        }
+    }
+    
+    @Benchmark
+    public Object post() {
+        return bus.post(topic, event);
+    }
+}
@@ -0,0 +1,66 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a phase graph change at runtime: a new phase is linked after the last one,
+ * then every topic is posted to once, which pays for bringing their snapshots up to date.
+ *
+ * <p>Each of the {@code topics} topics holds {@code listeners} listeners spread over 16 phases.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Thread)
+public class PhaseChangeBenchmark {
+    @Param ({ "10", "1000" })
+    int topics;
+    
+    @Param ({ "16", "256" })
+    int listeners;
+    
+    EventBus<String> bus;
+    
+    final ArrayList<EventTopic<Object>> list = new ArrayList<>();
+    
+    final Object event = new Object();
+    
+    int added = 0;
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("p0");
+        for (int i = 1; i < 16; ++i) bus.getPhases().link("p" + (i - 1), "p" + i);
+        
+        list.clear();
+        for (int i = 0; i < topics; ++i) {
+            val topic = EventTopic.<Object>of("t" + i);
+            for (int j = 0; j < listeners; ++j) bus.register(topic, "p" + (j % 16), Fixtures.listener(j));
+            bus.post(topic, event);
+            list.add(topic);
+        }
+    }
+    
+    @Benchmark
+    public void addPhaseThenPost() {
+        bus.getPhases().link("p15", "n" + added++);
+        for (val it : list) bus.post(it, event);
+    }
+}
@@ -0,0 +1,63 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of linking phases at runtime, followed by {@link PhaseManager#getSorted()},
+ * on a sorted chain of {@code phases} phases.
+ *
+ * <ul>
+ *   <li>{@code ordered}: links two existing phases that are already in order.</li>
+ *   <li>{@code append}: links a new phase after a random existing one.</li>
+ * </ul>
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Thread)
+public class PhaseLinkBenchmark {
+    @Param ({ "1000", "100000" })
+    int phases;
+    
+    PhaseManager<String> manager;
+    
+    final Random random = new Random(0);
+    
+    int added = 0;
+    
+    @Setup
+    public void setup() {
+        manager = PhaseManager.builderComparable("p0").build();
+        for (int i = 1; i < phases; ++i) manager.link("p" + (i - 1), "p" + i);
+        manager.getSorted();
+    }
+    
+    @Benchmark
+    public List<String> ordered() {
+        final int i = random.nextInt(phases - 1);
+        manager.link("p" + i, "p" + (i + 1 + random.nextInt(phases - 1 - i)));
+        return manager.getSorted();
+    }
+    
+    @Benchmark
+    public List<String> append() {
+        manager.link("p" + random.nextInt(phases), "n" + added++);
+        return manager.getSorted();
+    }
+}
@@ -0,0 +1,90 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link PhaseManager#getSorted()} on a large, freshly modified phase graph.
+ * The {@code chain} of 100000 phases is far deeper than a recursive search could go.
+ *
+ * <p>Shapes:
+ * <ul>
+ *   <li>{@code chain}: a single {@code link} chain, linked in random order.</li>
+ *   <li>{@code dag}: a random acyclic graph with three outgoing edges per phase.</li>
+ *   <li>{@code cycles}: a chain of cycles of ten phases each.</li>
+ * </ul>
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Thread)
+public class PhaseSortBenchmark {
+    @Param ({ "100", "1000", "100000" })
+    int phases;
+    
+    @Param ({ "chain", "dag", "cycles" })
+    String shape;
+    
+    PhaseManager<String> manager;
+    
+    @Setup (Level.Invocation)
+    public void setup() {
+        manager = PhaseManager.builderComparable("p0").build();
+        final Random random = new Random(phases);
+        
+        switch (shape) {
+            case "chain": {
+                final int[] order = new int[phases - 1];
+                for (int i = 0; i < order.length; ++i) order[i] = i;
+                for (int i = order.length - 1; i > 0; --i) {
+                    final int j = random.nextInt(i + 1);
+                    final int t = order[i];
+                    order[i] = order[j];
+                    order[j] = t;
+                }
+                for (final int i : order) manager.link("p" + i, "p" + (i + 1));
+                break;
+            }
+            
+            case "dag":
+                for (int i = 0; i < phases - 1; ++i) {
+                    for (int k = 0; k < 3; ++k) {
+                        manager.link("p" + i, "p" + (i + 1 + random.nextInt(phases - 1 - i)));
+                    }
+                }
+                break;
+            
+            case "cycles":
+                for (int i = 0; i < phases; ++i) {
+                    final int base = i - i % 10;
+                    manager.link("p" + i, "p" + (base + (i + 1) % 10));
+                    if (i % 10 == 9 && i + 1 < phases) manager.link("p" + i, "p" + (i + 1));
+                }
+                break;
+            
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+    
+    @Benchmark
+    public List<String> getSorted() {
+        return manager.getSorted();
+    }
+}
@@ -0,0 +1,86 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registration churn: {@link EventBus#register(EventTopic, EventListener)} followed by
+ * {@link EventBus.Registration#unregister()} on a root topic.
+ *
+ * <p>The root topic already holds {@code listeners} listeners and has {@code dependents}
+ * subtopics whose snapshots are built, so every change invalidates them. The bus is shared,
+ * so running with several threads measures contention between registering threads.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class RegistrationBenchmark {
+    @Param ({ "10", "1000" })
+    int listeners;
+    
+    @Param ({ "0", "10", "100" })
+    int dependents;
+    
+    EventBus<String> bus;
+    
+    EventTopic<Object> root;
+    
+    final List<EventTopic<Object>> subtopics = new ArrayList<>();
+    
+    final EventListener<Object> listener = Fixtures.listener(0);
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        root = EventTopic.of("root");
+        
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(root, Fixtures.listener(i));
+        }
+        
+        subtopics.clear();
+        for (int i = 0; i < dependents; ++i) {
+            val it = EventTopic.<Object>of("sub" + i, root);
+            bus.register(it, Fixtures.listener(i));
+            bus.post(it, event);
+            subtopics.add(it);
+        }
+    }
+    
+    @Benchmark
+    public void registerUnregister() {
+        bus.register(root, listener).unregister();
+    }
+    
+    /**
+     * Churn followed by a post to every subtopic, which pays for the snapshot rebuilds
+     * caused by the churn.
+     */
+    @Benchmark
+    public void registerUnregisterThenPost() {
+        bus.register(root, listener).unregister();
+        
+        for (val it : subtopics) bus.post(it, event);
+    }
+}
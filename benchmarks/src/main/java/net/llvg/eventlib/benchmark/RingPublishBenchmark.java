@@ -0,0 +1,78 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventRing;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Publishing to an {@link EventRing} with one consumer, next to posting synchronously, to a topic
+ * with {@code listeners} distinct listeners. Run with {@code -t} to add producer threads.
+ * A producer outrunning the consumer waits for free slots with {@code BLOCK}, so the score is bounded
+ * by the consumer, while the dropping policies keep publishing at the cost of the dropped events.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class RingPublishBenchmark {
+    @Param ({ "1", "16" })
+    int listeners;
+    
+    @Param ({ "BUSY_SPIN", "YIELD" })
+    EventRing.WaitStrategy waitStrategy;
+    
+    @Param ({ "BLOCK", "DROP_NEWEST", "DROP_OLDEST" })
+    EventRing.Overflow overflow;
+    
+    EventBus<String> bus;
+    
+    EventRing<Object> ring;
+    
+    final EventTopic<Object> topic = EventTopic.of("topic");
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topic, Fixtures.listener(i));
+        }
+        
+        ring = EventRing.builder(bus, topic)
+          .capacity(1 << 16)
+          .waitStrategy(waitStrategy)
+          .overflow(overflow)
+          .build();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        ring.close();
+    }
+    
+    @Benchmark
+    public void publish() {
+        ring.publish(event);
+    }
+    
+    @Benchmark
+    public Object post() {
+        return bus.post(topic, event);
+    }
+}
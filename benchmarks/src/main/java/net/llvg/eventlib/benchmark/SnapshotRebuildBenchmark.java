@@ -0,0 +1,84 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building a snapshot after it was invalidated, i.e. the first
+ * {@link EventBus#getSnapshot(EventTopic)} after a registration change.
+ *
+ * <p>{@code listeners} listeners are spread over {@code phases} phases and over the topics of
+ * {@code depth} diamonds. Before every invocation a probe listener on the root topic is
+ * replaced, which invalidates the snapshot of the leaf topic.
+ */
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Thread)
+public class SnapshotRebuildBenchmark {
+    @Param ({ "10", "1000", "10000" })
+    int listeners;
+    
+    @Param ({ "1", "16" })
+    int phases;
+    
+    @Param ({ "1", "4" })
+    int depth;
+    
+    EventBus<String> bus;
+    
+    List<EventTopic<Object>> topics;
+    
+    EventTopic<Object> leaf;
+    
+    EventBus.Registration<String> probe;
+    
+    final EventListener<Object> listener = Fixtures.listener(0);
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("p0");
+        topics = Fixtures.diamonds(depth);
+        leaf = topics.get(topics.size() - 1);
+        
+        for (int i = 1; i < phases; ++i) {
+            bus.getPhases().link("p" + (i - 1), "p" + i);
+        }
+        
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topics.get(i % topics.size()), "p" + (i % phases), Fixtures.listener(i));
+        }
+        
+        probe = bus.register(topics.get(0), listener);
+    }
+    
+    @Setup (Level.Invocation)
+    public void invalidate() {
+        val phase = probe.getPhase();
+        probe.unregister();
+        probe = bus.register(topics.get(0), phase, listener);
+    }
+    
+    @Benchmark
+    public EventBus.SnapshotList<String, Object> rebuild() {
+        return bus.getSnapshot(leaf);
+    }
+}
@@ -0,0 +1,72 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.Subscribe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Posting to a listener registered as a lambda, as a public {@link Subscribe} method, which is
+ * bound through {@code LambdaMetafactory}, or as a private one, which goes through a
+ * {@code MethodHandle}.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class SubscriberPostBenchmark {
+    @Param ({ "lambda", "public", "private" })
+    String kind;
+    
+    EventBus<String> bus;
+    
+    final Fixtures.L0 event = new Fixtures.L0();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        
+        switch (kind) {
+            case "lambda":
+                bus.register(Fixtures.L0.class, e -> Blackhole.consumeCPU(1));
+                break;
+            case "public":
+                bus.register(new PublicSubscriber());
+                break;
+            default:
+                bus.register(new PrivateSubscriber());
+        }
+    }
+    
+    @Benchmark
+    public Object post() {
+        return bus.post(event);
+    }
+    
+    public static class PublicSubscriber {
+        @Subscribe
+        public void on(final Fixtures.L0 event) {
+            Blackhole.consumeCPU(1);
+        }
+    }
+    
+    public static class PrivateSubscriber {
+        @Subscribe
+        private void on(final Fixtures.L0 event) {
+            Blackhole.consumeCPU(1);
+        }
+    }
+}
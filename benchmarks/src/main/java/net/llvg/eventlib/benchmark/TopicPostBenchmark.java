@@ -0,0 +1,80 @@
+package net.llvg.eventlib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventTopic;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Posting to an explicit topic on top of a stack of {@link EventTopic#of(EventTopic[])} diamonds.
+ *
+ * <p>{@code listeners} listeners are spread over every topic of the hierarchy, and events are
+ * posted to the leaf, either through the bus or through a cached snapshot.
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 1)
+@Measurement (iterations = 5, time = 1)
+@Fork (1)
+@State (Scope.Benchmark)
+public class TopicPostBenchmark {
+    @Param ({ "1", "10", "100" })
+    int listeners;
+    
+    @Param ({ "1", "4", "16" })
+    int depth;
+    
+    EventBus<String> bus;
+    
+    EventTopic<Object> topic;
+    
+    EventBus.SnapshotList<String, Object> snapshot;
+    
+    final Object event = new Object();
+    
+    @Setup
+    public void setup() {
+        bus = EventBus.create("default");
+        
+        val topics = Fixtures.diamonds(depth);
+        for (int i = 0; i < listeners; ++i) {
+            bus.register(topics.get(i % topics.size()), Fixtures.listener(i));
+        }
+        
+        topic = topics.get(topics.size() - 1);
+        snapshot = bus.getSnapshot(topic);
+    }
+    
+    @Benchmark
+    public Object postTopic() {
+        return bus.post(topic, event);
+    }
+    
+    @Benchmark
+    public @Nullable EventError postAndCatchTopic() {
+        return bus.postAndCatch(topic, event);
+    }
+    
+    @Benchmark
+    public Object snapshotPost() {
+        return snapshot.post(event);
+    }
+    
+    @Benchmark
+    public @Nullable EventError snapshotPostAndCatch() {
+        return snapshot.postAndCatch(event);
+    }
+}
@@ -51,6 +51,16 @@ java {
     withJavadocJar()
 }
 
+// multi-release overlays: `src/java<N>/java` replaces classes of the Java 8 baseline on Java N+
+val releases = listOf(17, 21)
+
+val overlays = releases.associateWith { release ->
+    sourceSets.create("java$release") {
+        java.srcDir("src/java$release/java")
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+}
+
 repositories {
     mavenCentral()
 }
@@ -58,6 +68,10 @@ repositories {
 dependencies {
     compileOnly(libs.bundles.annontations)
     testCompileOnly(libs.bundles.annontations)
+    
+    overlays.values.forEach {
+        add(it.compileOnlyConfigurationName, libs.bundles.annontations)
+    }
 }
 
 testing {
@@ -88,4 +102,46 @@ tasks {
     withType<JavaCompile> {
         options.encoding = "UTF-8"
     }
+    
+    overlays.forEach { (release, sourceSet) ->
+        named<JavaCompile>(sourceSet.compileJavaTaskName) {
+            javaCompiler = project.javaToolchains.compilerFor {
+                languageVersion = JavaLanguageVersion.of(release)
+            }
+            options.release = release
+        }
+    }
+    
+    jar {
+        overlays.forEach { (release, sourceSet) ->
+            into("META-INF/versions/$release") {
+                from(sourceSet.output)
+            }
+        }
+        
+        manifest {
+            attributes("Multi-Release" to "true")
+        }
+    }
+    
+    // runs the test suite against the multi-release jar, so that the overlays are tested too
+    releases.forEach { release ->
+        val test = register<Test>("testJava$release") {
+            group = "verification"
+            description = "Runs the test suite against the jar on Java $release."
+            
+            javaLauncher = project.javaToolchains.launcherFor {
+                languageVersion = JavaLanguageVersion.of(release)
+            }
+            
+            testClassesDirs = sourceSets.test.get().output.classesDirs
+            classpath = files(jar) + sourceSets.test.get().runtimeClasspath - sourceSets.main.get().output
+            
+            useJUnitPlatform()
+        }
+        
+        named("check") {
+            dependsOn(test)
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// holder of the active flag of a registration.
+// the flag does not guard any other state, so acquire/release is enough.
+abstract class ActiveHolder {
+    private static final VarHandle ACTIVE;
+    
+    static {
+        try {
+            ACTIVE = MethodHandles.lookup().findVarHandle(ActiveHolder.class, "active", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private boolean active = true;
+    
+    public boolean isActive() {
+        return (boolean) ACTIVE.getAcquire(this);
+    }
+    
+    public void setActive(final boolean value) {
+        ACTIVE.setRelease(this, value);
+    }
+}
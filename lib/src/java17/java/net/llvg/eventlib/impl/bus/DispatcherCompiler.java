@@ -0,0 +1,58 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventListener;
+import org.jspecify.annotations.Nullable;
+
+// compiles a snapshot into a chain of straight-line dispatchers, one per chunk of registrations.
+// every chunk gets its own hidden copy of the CompiledDispatcher template, so no call site is shared
+// between chunks. a hidden class is not held by its class loader, so it is unloaded together with
+// the last snapshot using it, and compiling a topic again never piles up classes.
+final class DispatcherCompiler {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    
+    private static final byte @Nullable [] template = readTemplate();
+    
+    private DispatcherCompiler() { }
+    
+    // a method rather than a constant, which javac would inline into the callers compiled against the baseline
+    static boolean isSupported() {
+        return template != null;
+    }
+    
+    private static byte @Nullable [] readTemplate() {
+        try (final InputStream in = CompiledDispatcher.class.getResourceAsStream("CompiledDispatcher.class")) {
+            if (in == null) return null;
+            
+            val out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    // null if a copy cannot be defined, which leaves the snapshot on its dispatch loop
+    static @Nullable Dispatcher compile(final EventListener<?>[] listeners) {
+        val template = DispatcherCompiler.template;
+        if (template == null) return null;
+        
+        try {
+            Dispatcher next = null;
+            for (int from = (listeners.length - 1) / CompiledDispatcher.SLOTS * CompiledDispatcher.SLOTS; from >= 0; from -= CompiledDispatcher.SLOTS) {
+                val copy = lookup.defineHiddenClass(template, true).lookupClass();
+                next = (Dispatcher) copy
+                  .getDeclaredConstructor(EventListener[].class, int.class, Dispatcher.class)
+                  .newInstance(listeners, from, next);
+            }
+            
+            return next;
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            return null;
+        }
+    }
+}
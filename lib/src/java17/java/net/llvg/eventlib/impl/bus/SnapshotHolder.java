@@ -0,0 +1,34 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import org.jspecify.annotations.Nullable;
+
+// holder of a lazily built snapshot.
+// snapshots are immutable once built, so publishing them only needs release stores and acquire loads.
+abstract class SnapshotHolder<S> {
+    private static final VarHandle SNAPSHOT;
+    
+    static {
+        try {
+            SNAPSHOT = MethodHandles.lookup().findVarHandle(SnapshotHolder.class, "snapshot", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private transient @Nullable S snapshot = null;
+    
+    @SuppressWarnings ("unchecked")
+    final @Nullable S getSnapshot() {
+        return (S) SNAPSHOT.getAcquire(this);
+    }
+    
+    final void setSnapshot(final @Nullable S value) {
+        SNAPSHOT.setRelease(this, value);
+    }
+    
+    final boolean casSnapshot(final S expect, final @Nullable S update) {
+        return SNAPSHOT.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,23 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import org.jspecify.annotations.Nullable;
+
+// resolves the lookup a @Subscribe method is linked into a lambda with.
+// a private lookup in the class of the method spins the lambda as a hidden class of that class,
+// in its class loader, so that methods of any visibility, and classes of plugin or child class loaders, are linked.
+final class SubscriberLookup {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    
+    private SubscriberLookup() { }
+    
+    // null if the module of the class does not open it to this library, then the method is called through its handle
+    static MethodHandles.@Nullable Lookup of(final Method method) {
+        try {
+            return MethodHandles.privateLookupIn(method.getDeclaringClass(), lookup);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+}
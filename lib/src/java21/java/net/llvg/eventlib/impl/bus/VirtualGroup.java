@@ -0,0 +1,49 @@
+package net.llvg.eventlib.impl.bus;
+
+import lombok.val;
+
+// runs a VIRTUAL phase group, every listener on its own virtual thread.
+// the posting thread joins all of them before the next group starts, so a blocked listener
+// only parks its virtual thread, and the group takes as long as its slowest listener.
+final class VirtualGroup {
+    private VirtualGroup() { }
+    
+    // a method rather than a constant, which javac would inline into the callers compiled against the baseline
+    static boolean isSupported() {
+        return true;
+    }
+    
+    static void invoke(
+      final ParallelSnapshotList<?, ?> snapshot,
+      final Object[] batch,
+      final int from,
+      final int end,
+      final ParallelSnapshotList.Failure failure
+    ) {
+        val threads = new Thread[end - from];
+        for (int i = from; i < end; ++i) {
+            final int index = i;
+            threads[i - from] = Thread.ofVirtual().start(() -> {
+                try {
+                    snapshot.invokeAll(index, batch);
+                } catch (Throwable e) {
+                    failure.record(index, e);
+                }
+            });
+        }
+        
+        // like ForkJoinPool.invoke, the join is not interruptible, the interrupt is kept for the caller
+        boolean interrupted = false;
+        for (val it : threads) {
+            while (true) {
+                try {
+                    it.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
@@ -0,0 +1,40 @@
+package net.llvg.eventlib.api.bus;
+
+/**
+ * An event whose dispatch can be stopped part-way.
+ *
+ * <p>Once a listener cancels the event, the listeners after it are skipped, except for those
+ * that {@linkplain EventListener#receivesCancelled() receive cancelled events}. If one of them
+ * clears the flag again, the remaining listeners receive the event as usual. An event posted
+ * while already cancelled only reaches the listeners that receive cancelled events.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * bus.register(ChatEvent.class, "filter", event -> {
+ *     if (isSpam(event)) event.setCancelled(true);
+ * });
+ *
+ * // still called for cancelled events, for example to log them
+ * bus.register(ChatEvent.class, "monitor", EventListener.receivingCancelled(event -> { ... }));
+ * }</pre>
+ *
+ * <p>Events of other types are posted to every listener, without any check for cancellation.
+ *
+ * @see EventListener#receivesCancelled()
+ * @see Subscribe#receiveCancelled()
+ */
+public interface Cancellable {
+    /**
+     * Returns whether this event is cancelled.
+     *
+     * @return {@code true} if the event is cancelled
+     */
+    boolean isCancelled();
+    
+    /**
+     * Sets whether this event is cancelled.
+     *
+     * @param cancelled {@code true} to skip the remaining listeners that do not receive cancelled events
+     */
+    void setCancelled(final boolean cancelled);
+}
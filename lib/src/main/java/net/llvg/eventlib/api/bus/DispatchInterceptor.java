@@ -0,0 +1,78 @@
+package net.llvg.eventlib.api.bus;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Observes the dispatch of events, for example to trace, time or log slow listeners.
+ *
+ * <p>Interceptors are installed on a bus with {@link EventBus#addInterceptor(DispatchInterceptor)},
+ * or on a topic and its subtopics with {@link EventBus#addInterceptor(EventTopic, DispatchInterceptor)}.
+ * The snapshots of the affected topics are rebuilt with the interceptors woven in, while topics
+ * without interceptors keep posting through the plain dispatch loop.
+ *
+ * <p>The hooks are called on the posting thread, except for the invoke hooks of the listeners of a
+ * {@link net.llvg.eventlib.api.phase.PhaseManager.Delivery#PARALLEL} or
+ * {@link net.llvg.eventlib.api.phase.PhaseManager.Delivery#VIRTUAL} phase, which run on the thread
+ * of their listener, concurrently with each other. The {@code before} hooks of the interceptors of
+ * the bus run first, followed by those of the topics, each in installation order, and the
+ * {@code after} hooks run in reverse. An exception thrown by a hook propagates like one thrown
+ * by a listener.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * class SlowListenerLogger implements DispatchInterceptor {
+ *     public void afterInvoke(EventTopic<?> topic, Registration<?> registration, Object event, long nanos, Throwable failure) {
+ *         if (nanos > 1_000_000) log.warn("{} took {}ns", registration.getListener(), nanos);
+ *     }
+ * }
+ *
+ * bus.addInterceptor(new SlowListenerLogger());
+ * }</pre>
+ *
+ * @see EventBus#addInterceptor(DispatchInterceptor)
+ * @see EventBus#addInterceptor(EventTopic, DispatchInterceptor)
+ */
+public interface DispatchInterceptor {
+    /**
+     * Called before an event is posted to the listeners of a topic.
+     *
+     * @param topic the topic posted to
+     * @param event the event
+     */
+    default void beforePost(final EventTopic<?> topic, final Object event) { }
+    
+    /**
+     * Called after an event was posted to the listeners of a topic.
+     *
+     * @param topic the topic posted to
+     * @param event the event
+     * @param failure the exception of the failed listener, or {@code null} if all of them succeeded
+     */
+    default void afterPost(final EventTopic<?> topic, final Object event, final @Nullable Throwable failure) { }
+    
+    /**
+     * Called before a listener is invoked. Inactive registrations are skipped.
+     *
+     * @param topic the topic posted to
+     * @param registration the registration of the listener
+     * @param event the event
+     */
+    default void beforeInvoke(final EventTopic<?> topic, final EventBus.Registration<?> registration, final Object event) { }
+    
+    /**
+     * Called after a listener was invoked.
+     *
+     * @param topic the topic posted to
+     * @param registration the registration of the listener
+     * @param event the event
+     * @param nanos how long the listener took, in nanoseconds
+     * @param failure the exception thrown by the listener, or {@code null} if it succeeded
+     */
+    default void afterInvoke(
+      final EventTopic<?> topic,
+      final EventBus.Registration<?> registration,
+      final Object event,
+      final long nanos,
+      final @Nullable Throwable failure
+    ) { }
+}
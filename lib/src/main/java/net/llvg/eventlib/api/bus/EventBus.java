@@ -1,12 +1,26 @@
 package net.llvg.eventlib.api.bus;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import net.llvg.eventlib.api.metrics.MetricsCollector;
 import net.llvg.eventlib.api.phase.PhaseManager;
+import net.llvg.eventlib.impl.Util;
 import net.llvg.eventlib.impl.bus.EventBusImpl;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Unmodifiable;
@@ -90,6 +104,186 @@ public interface EventBus<P> {
         return register(topic, getPhases().getDefaultPhase(), listener);
     }
     
+    /**
+     * Registers an event listener that is only weakly reachable from the bus.
+     *
+     * <p>The bus does not keep the listener alive: once it is garbage collected, it stops
+     * receiving events, and its registration is removed during a later registration on this bus.
+     * The caller must keep a strong reference to the listener, for example in the object
+     * whose lifetime the listener should follow.
+     *
+     * @param topic the event topic to listen to
+     * @param phase the phase at which to receive events
+     * @param listener the event listener, held weakly
+     * @param <E> the event type
+     *
+     * @return a registration handle for unregistering
+     *
+     * @see #register(EventTopic, Object, EventListener)
+     */
+    @CanIgnoreReturnValue
+    <E> Registration<P> registerWeak(
+      final EventTopic<E> topic,
+      final P phase,
+      final EventListener<? super E> listener
+    );
+    
+    /**
+     * Registers a weakly held event listener for a specific topic using the default phase.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code registerWeak(topic, getPhases().getDefaultPhase(), listener)}</pre>
+     *
+     * @param topic the event topic to listen to
+     * @param listener the event listener, held weakly
+     * @param <E> the event type
+     *
+     * @return a registration handle for unregistering
+     *
+     * @see #registerWeak(EventTopic, Object, EventListener)
+     */
+    @CanIgnoreReturnValue
+    @ApiStatus.NonExtendable
+    default <E> Registration<P> registerWeak(
+      final EventTopic<E> topic,
+      final EventListener<? super E> listener
+    ) {
+        return registerWeak(topic, getPhases().getDefaultPhase(), listener);
+    }
+    
+    /**
+     * Registers an event listener for the events posted to a topic with a specific key.
+     *
+     * <p>A keyed listener only receives the events posted by {@link #post(EventTopic, Object, Object)}
+     * with an equal key, merged in phase order with the listeners of the topic and its supertopics
+     * registered without a key. The keys of a topic are indexed by hash, so a keyed post only
+     * reaches the listeners of its own key, however many keys the topic has.
+     *
+     * <p>Keys are compared with {@link Object#equals(Object)}, and must not change while registered.
+     * The bus forgets a key once all its registrations are gone.
+     *
+     * @param topic the event topic to listen to
+     * @param key the key of the events to receive
+     * @param phase the phase at which to receive events
+     * @param listener the event listener
+     * @param <E> the event type
+     *
+     * @return a registration handle for unregistering
+     *
+     * @see #register(EventTopic, Object, EventListener)
+     */
+    @CanIgnoreReturnValue
+    <E> Registration<P> register(
+      final EventTopic<E> topic,
+      final Object key,
+      final P phase,
+      final EventListener<? super E> listener
+    );
+    
+    /**
+     * Registers every {@link Subscribe}-annotated method of a subscriber object.
+     *
+     * <p>The methods of a class are looked up once and cached. All registrations of the
+     * subscriber are applied together, so each affected topic is updated only once.
+     *
+     * <p>The bus holds the subscriber strongly until it is {@linkplain #unregister(Object) unregistered}.
+     *
+     * @param subscriber the object declaring the listener methods
+     *
+     * @return the registration handles, one per listener method
+     *
+     * @throws IllegalStateException if a method is not a valid listener, or its phase cannot be parsed
+     * @see Subscribe
+     */
+    @CanIgnoreReturnValue
+    @Unmodifiable List<Registration<P>> register(final Object subscriber);
+    
+    /**
+     * Unregisters every registration made by {@link #register(Object)} for a subscriber object.
+     *
+     * <p>Subscribers are matched by identity. This method does nothing if the subscriber
+     * is not registered.
+     *
+     * @param subscriber the subscriber object to unregister
+     */
+    void unregister(final Object subscriber);
+    
+    /**
+     * Applies several registrations and unregistrations together.
+     *
+     * <p>The action records its changes on the given transaction, and they are applied once it
+     * returns: every affected topic is updated in a single pass, so registering many listeners at
+     * once costs about as much as registering one per topic. If the action throws, none of the
+     * changes are applied and the exception is propagated.
+     *
+     * <p>Example usage:
+     * <pre>{@code
+     * RegistrationGroup<Phase> group = bus.batch(tx -> {
+     *     tx.register(topicA, event -> { ... });
+     *     tx.register(topicB, "custom", event -> { ... });
+     *     tx.unregister(oldRegistration);
+     * });
+     *
+     * // later, unregister all of them at once
+     * group.unregister();
+     * }</pre>
+     *
+     * @param action the action recording the changes
+     *
+     * @return a group of the registrations made by the action
+     *
+     * @see Transaction
+     * @see RegistrationGroup
+     */
+    @CanIgnoreReturnValue
+    RegistrationGroup<P> batch(final Consumer<? super Transaction<P>> action);
+    
+    /**
+     * Installs an interceptor observing every post to this bus.
+     *
+     * <p>The snapshots of every topic are rebuilt with the interceptor once they are used next.
+     * Installing the same interceptor twice makes it observe every post twice.
+     *
+     * @param interceptor the interceptor to install
+     *
+     * @see DispatchInterceptor
+     */
+    void addInterceptor(final DispatchInterceptor interceptor);
+    
+    /**
+     * Installs an interceptor observing the posts to a topic and to its subtopics.
+     *
+     * <p>Only the snapshots of these topics are rebuilt, the other topics keep posting
+     * through the plain dispatch loop.
+     *
+     * @param topic the topic to intercept
+     * @param interceptor the interceptor to install
+     *
+     * @see DispatchInterceptor
+     */
+    void addInterceptor(final EventTopic<?> topic, final DispatchInterceptor interceptor);
+    
+    /**
+     * Removes an interceptor installed by {@link #addInterceptor(DispatchInterceptor)}.
+     *
+     * @param interceptor the interceptor to remove
+     *
+     * @return {@code true} if the interceptor was installed
+     */
+    @CanIgnoreReturnValue
+    boolean removeInterceptor(final DispatchInterceptor interceptor);
+    
+    /**
+     * Removes an interceptor installed by {@link #addInterceptor(EventTopic, DispatchInterceptor)}.
+     *
+     * @param topic the intercepted topic
+     * @param interceptor the interceptor to remove
+     *
+     * @return {@code true} if the interceptor was installed on the topic
+     */
+    @CanIgnoreReturnValue
+    boolean removeInterceptor(final EventTopic<?> topic, final DispatchInterceptor interceptor);
+    
     /**
      * Gets a snapshot of all registrations for a specific topic.
      *
@@ -123,6 +317,44 @@ public interface EventBus<P> {
         return getSnapshot(topic).post(event);
     }
     
+    /**
+     * Gets a snapshot of the registrations receiving the events posted to a topic with a specific key.
+     *
+     * <p>The snapshot holds the listeners registered for the key, and those registered for
+     * the topic without a key, in phase order. A key without registrations gets the snapshot
+     * of the topic itself.
+     *
+     * @param topic the event topic
+     * @param key the key of the events
+     * @param <E> the event type
+     *
+     * @return an unmodifiable list of registrations with posting methods
+     *
+     * @see #register(EventTopic, Object, Object, EventListener)
+     */
+    @CanIgnoreReturnValue
+    <E> @Unmodifiable SnapshotList<P, E> getSnapshot(final EventTopic<E> topic, final Object key);
+    
+    /**
+     * Posts an event to the registrations of a topic for a specific key.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code getSnapshot(topic, key).post(event)}</pre>
+     *
+     * @param topic the event topic
+     * @param key the key of the event
+     * @param event the event to post
+     * @param <E> the event type
+     *
+     * @return the posted event
+     *
+     * @see #getSnapshot(EventTopic, Object)
+     */
+    @CanIgnoreReturnValue
+    default <E> E post(final EventTopic<E> topic, final Object key, final E event) {
+        return getSnapshot(topic, key).post(event);
+    }
+    
     /**
      * Posts an event and catches any exception thrown by listeners.
      *
@@ -142,6 +374,77 @@ public interface EventBus<P> {
         return getSnapshot(topic).postAndCatch(event);
     }
     
+    /**
+     * Posts an event asynchronously on the given executor, in phase order.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code getSnapshot(topic).postAsync(event, executor)}</pre>
+     *
+     * @param topic the event topic
+     * @param event the event to post
+     * @param executor the executor running the listeners
+     * @param <E> the event type
+     *
+     * @return a future completed with the event once every listener ran
+     *
+     * @see SnapshotList#postAsync(Object, Executor)
+     */
+    @CanIgnoreReturnValue
+    default <E> CompletableFuture<E> postAsync(final EventTopic<E> topic, final E event, final Executor executor) {
+        return getSnapshot(topic).postAsync(event, executor);
+    }
+    
+    /**
+     * Posts a batch of events to all active registrations for a specific topic.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code getSnapshot(topic).postAll(events, order)}</pre>
+     *
+     * @param topic the event topic
+     * @param events the events to post
+     * @param order the order in which listeners and events are paired
+     * @param <E> the event type
+     *
+     * @see SnapshotList#postAll(Iterable, EventBus.BatchOrder)
+     */
+    default <E> void postAll(final EventTopic<E> topic, final Iterable<? extends E> events, final BatchOrder order) {
+        getSnapshot(topic).postAll(events, order);
+    }
+    
+    /**
+     * Posts a batch of events, one event after another.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code postAll(topic, events, BatchOrder.EVENT_MAJOR)}</pre>
+     *
+     * @param topic the event topic
+     * @param events the events to post
+     * @param <E> the event type
+     *
+     * @see #postAll(EventTopic, Iterable, BatchOrder)
+     */
+    @ApiStatus.NonExtendable
+    default <E> void postAll(final EventTopic<E> topic, final Iterable<? extends E> events) {
+        postAll(topic, events, BatchOrder.EVENT_MAJOR);
+    }
+    
+    /**
+     * Posts an array of events, one event after another.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code postAll(topic, Arrays.asList(events), BatchOrder.EVENT_MAJOR)}</pre>
+     *
+     * @param topic the event topic
+     * @param events the events to post
+     * @param <E> the event type
+     *
+     * @see #postAll(EventTopic, Iterable, BatchOrder)
+     */
+    @ApiStatus.NonExtendable
+    default <E> void postAll(final EventTopic<E> topic, final E[] events) {
+        postAll(topic, Arrays.asList(Util.argNotNull(events, "events")), BatchOrder.EVENT_MAJOR);
+    }
+    
     /**
      * Registers an event listener using a class type as the event topic.
      *
@@ -246,6 +549,26 @@ public interface EventBus<P> {
         return postAndCatch(EventTopic.forClass((Class<E>) event.getClass()), event);
     }
     
+    /**
+     * Posts an event asynchronously using its runtime class as the event topic.
+     *
+     * <p>This is an alias for:
+     * <pre>{@code postAsync(EventTopic.forClass(event.getClass()), event, executor)}</pre>
+     *
+     * @param event the event to post
+     * @param executor the executor running the listeners
+     * @param <E> the event type
+     *
+     * @return a future completed with the event once every listener ran
+     *
+     * @see EventTopic#forClass(Class)
+     */
+    @CanIgnoreReturnValue
+    @SuppressWarnings ("unchecked")
+    default <E> CompletableFuture<E> postAsync(final E event, final Executor executor) {
+        return postAsync(EventTopic.forClass((Class<E>) event.getClass()), event, executor);
+    }
+    
     /**
      * Creates an event bus with a custom phase manager builder.
      *
@@ -255,7 +578,7 @@ public interface EventBus<P> {
      * @return a new event bus instance
      */
     static <P> EventBus<P> create(final PhaseManager.Builder<P> phaseManagerBuilder) {
-        return EventBusImpl.create(phaseManagerBuilder);
+        return builder(phaseManagerBuilder).build();
     }
     
     /**
@@ -270,7 +593,137 @@ public interface EventBus<P> {
      * @return a new event bus instance
      */
     static <P extends Comparable<? super P>> EventBus<P> create(final P defaultPhase) {
-        return EventBusImpl.create(PhaseManager.builderComparable(defaultPhase));
+        return builder(PhaseManager.builderComparable(defaultPhase)).build();
+    }
+    
+    /**
+     * Creates a builder for an event bus with a custom phase manager builder.
+     *
+     * @param phaseManagerBuilder the phase manager builder
+     * @param <P> the phase type
+     *
+     * @return a new builder instance
+     */
+    @CheckReturnValue
+    static <P> Builder<P> builder(final PhaseManager.Builder<P> phaseManagerBuilder) {
+        return new Builder<>(Util.argNotNull(phaseManagerBuilder, "phaseManagerBuilder"));
+    }
+    
+    /**
+     * Builder for {@link EventBus}.
+     *
+     * @param <P> the phase type
+     *
+     * @see EventBus#builder(PhaseManager.Builder)
+     */
+    @RequiredArgsConstructor (access = AccessLevel.PRIVATE)
+    @Getter
+    @Setter
+    @Accessors (
+      fluent = true,
+      chain = true
+    )
+    @FieldDefaults (level = AccessLevel.PRIVATE)
+    final class Builder<P> {
+        /**
+         * -- GETTER --
+         * Returns the builder of the phase manager of the bus.
+         *
+         * @return the phase manager builder
+         */
+        @Setter (AccessLevel.NONE)
+        final PhaseManager.Builder<P> phases;
+        
+        /**
+         * -- GETTER --
+         * Returns the pool running the listeners of {@link PhaseManager.Delivery#PARALLEL} phases.
+         *
+         * @return the parallel pool
+         *
+         * -- SETTER --
+         * Sets the pool running the listeners of {@link PhaseManager.Delivery#PARALLEL} phases,
+         * and the {@linkplain #compileAfter() compilation} of snapshots.
+         * Defaults to {@link ForkJoinPool#commonPool()}.
+         *
+         * @param parallelPool the parallel pool
+         * @return this builder instance
+         */
+        ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+        
+        /**
+         * -- GETTER --
+         * Returns how long a snapshot must stay unchanged before it is compiled.
+         *
+         * @return the stability window, {@code null} if compilation is disabled
+         *
+         * -- SETTER --
+         * Sets how long a snapshot must stay unchanged before it is compiled.
+         * Defaults to {@code null}, which disables compilation.
+         *
+         * <p>A compiled snapshot posts through generated straight-line code, in which every
+         * listener is called from its own call site, so that the JIT can inline the listeners
+         * of hot topics. A snapshot is compiled once, on the {@linkplain #parallelPool() parallel pool},
+         * and keeps posting through its loop meanwhile. Compiling defines a small hidden class for
+         * every eight listeners, which is unloaded together with the snapshot, so the window should
+         * be long enough to skip snapshots that are replaced soon. Snapshots with
+         * {@link PhaseManager.Delivery#PARALLEL} or {@link PhaseManager.Delivery#VIRTUAL} phases are never compiled.
+         *
+         * <p>Hidden classes need Java 17 or later. Before that, snapshots are never compiled.
+         *
+         * @param compileAfter the stability window, or {@code null} to disable compilation
+         * @return this builder instance
+         */
+        @Nullable Duration compileAfter = null;
+        
+        /**
+         * -- GETTER --
+         * Returns the parser of the phases named by {@link Subscribe#phase()}.
+         *
+         * @return the phase parser, {@code null} if derived from the default phase
+         *
+         * -- SETTER --
+         * Sets the parser of the phases named by {@link Subscribe#phase()}.
+         *
+         * <p>Defaults to {@code null}, which accepts the names as they are for {@link String} phases,
+         * and the constant names for {@link Enum} phases. An empty name always means the default phase.
+         *
+         * @param phaseParser the phase parser
+         * @return this builder instance
+         */
+        @Nullable Function<String, P> phaseParser = null;
+        
+        /**
+         * -- GETTER --
+         * Returns the collector receiving the dispatch metrics of the bus.
+         *
+         * @return the metrics collector, {@code null} if metrics are disabled
+         *
+         * -- SETTER --
+         * Sets the collector receiving the dispatch metrics of the bus.
+         * Defaults to {@code null}, which disables metrics.
+         *
+         * <p>A bus with a collector times every listener it posts to, and never compiles its
+         * snapshots. A bus without one posts through the same snapshots as before, so disabled
+         * metrics cost nothing.
+         *
+         * @param metrics the metrics collector, or {@code null} to disable metrics
+         * @return this builder instance
+         *
+         * @see net.llvg.eventlib.api.metrics.DispatchMetrics
+         */
+        @Nullable MetricsCollector metrics = null;
+        
+        /**
+         * Builds the {@link EventBus}.
+         *
+         * @return a new event bus instance
+         */
+        @CheckReturnValue
+        public EventBus<P> build() {
+            Util.argNotNull(parallelPool, "parallelPool");
+            Util.check(compileAfter == null || !compileAfter.isNegative(), "[compileAfter] must not be negative.");
+            return EventBusImpl.create(this);
+        }
     }
     
     /**
@@ -287,6 +740,10 @@ public interface EventBus<P> {
         /**
          * Returns the registered event listener.
          *
+         * <p>A listener registered with {@link EventBus#registerWeak(EventTopic, Object, EventListener)}
+         * is returned as given until it is garbage collected. From then on, a placeholder that ignores
+         * every event is returned, the same for all such registrations.
+         *
          * @return the listener
          */
         EventListener<?> getListener();
@@ -341,6 +798,175 @@ public interface EventBus<P> {
         }
     }
     
+    /**
+     * Records the changes of a {@link EventBus#batch(Consumer)} call.
+     *
+     * <p>A transaction is only valid during the action it was passed to, and must not be
+     * shared with other threads. Registrations made through it are not registered until the
+     * action returned.
+     *
+     * @param <P> the phase type
+     *
+     * @see EventBus#batch(Consumer)
+     */
+    interface Transaction<P> {
+        /**
+         * Records the registration of an event listener for a specific topic and phase.
+         *
+         * @param topic the event topic to listen to
+         * @param phase the phase at which to receive events
+         * @param listener the event listener
+         * @param <E> the event type
+         *
+         * @return a registration handle, registered once the batch is applied
+         *
+         * @throws IllegalStateException if the transaction is already applied
+         * @see EventBus#register(EventTopic, Object, EventListener)
+         */
+        @CanIgnoreReturnValue
+        <E> Registration<P> register(
+          final EventTopic<E> topic,
+          final P phase,
+          final EventListener<? super E> listener
+        );
+        
+        /**
+         * Records the registration of an event listener for a specific topic using the default phase.
+         *
+         * @param topic the event topic to listen to
+         * @param listener the event listener
+         * @param <E> the event type
+         *
+         * @return a registration handle, registered once the batch is applied
+         *
+         * @throws IllegalStateException if the transaction is already applied
+         * @see EventBus#register(EventTopic, EventListener)
+         */
+        @CanIgnoreReturnValue
+        <E> Registration<P> register(
+          final EventTopic<E> topic,
+          final EventListener<? super E> listener
+        );
+        
+        /**
+         * Records the registration of an event listener using a class type as the event topic.
+         *
+         * <p>This is an alias for:
+         * <pre>{@code register(EventTopic.forClass(type), phase, listener)}</pre>
+         *
+         * @param type the event class
+         * @param phase the phase at which to receive events
+         * @param listener the event listener
+         * @param <E> the event type
+         *
+         * @return a registration handle, registered once the batch is applied
+         *
+         * @see EventTopic#forClass(Class)
+         */
+        @CanIgnoreReturnValue
+        @ApiStatus.NonExtendable
+        default <E> Registration<P> register(
+          final Class<E> type,
+          final P phase,
+          final EventListener<? super E> listener
+        ) {
+            return register(EventTopic.forClass(type), phase, listener);
+        }
+        
+        /**
+         * Records the registration of an event listener using a class type with the default phase.
+         *
+         * <p>This is an alias for:
+         * <pre>{@code register(EventTopic.forClass(type), listener)}</pre>
+         *
+         * @param type the event class
+         * @param listener the event listener
+         * @param <E> the event type
+         *
+         * @return a registration handle, registered once the batch is applied
+         *
+         * @see EventTopic#forClass(Class)
+         */
+        @CanIgnoreReturnValue
+        @ApiStatus.NonExtendable
+        default <E> Registration<P> register(
+          final Class<E> type,
+          final EventListener<? super E> listener
+        ) {
+            return register(EventTopic.forClass(type), listener);
+        }
+        
+        /**
+         * Records the unregistration of a listener.
+         *
+         * <p>Unregistering a registration made earlier in the same transaction drops it from the batch.
+         *
+         * @param registration the registration to unregister
+         *
+         * @throws IllegalStateException if the transaction is already applied
+         * @see Registration#unregister()
+         */
+        void unregister(final Registration<P> registration);
+    }
+    
+    /**
+     * A group of registrations that are changed together.
+     *
+     * <p>Like {@link EventBus#batch(Consumer)}, the operations of a group update every
+     * affected topic once, instead of once per registration.
+     *
+     * @param <P> the phase type
+     *
+     * @see EventBus#batch(Consumer)
+     */
+    interface RegistrationGroup<P> {
+        /**
+         * Returns the registrations of this group.
+         *
+         * @return the registrations, in the order they were made
+         */
+        @Unmodifiable List<Registration<P>> getRegistrations();
+        
+        /**
+         * Unregisters every registration of this group.
+         *
+         * <p>This method is idempotent and safe to call multiple times.
+         *
+         * @see Registration#unregister()
+         */
+        void unregister();
+        
+        /**
+         * Toggles every registration of this group without unregistering them.
+         *
+         * @param value {@code true} to enable, {@code false} to disable
+         *
+         * @see Registration#setActive(boolean)
+         */
+        void setActive(final boolean value);
+    }
+    
+    /**
+     * The order in which a batch of events meets the listeners of a snapshot.
+     *
+     * @see SnapshotList#postAll(Iterable, EventBus.BatchOrder)
+     */
+    enum BatchOrder {
+        /**
+         * Every event runs through all listeners before the next event, like repeated
+         * {@link SnapshotList#post(Object)} calls.
+         */
+        EVENT_MAJOR,
+        
+        /**
+         * Every listener handles the whole batch before the next listener, still in phase order.
+         *
+         * <p>Keeps one listener hot for the whole batch, at the cost of interleaving: a later
+         * listener only sees the first event once every earlier listener saw the last one.
+         */
+        LISTENER_MAJOR
+    }
+    
     /**
      * An AutoCloseable wrapper for a Registration.
      *
@@ -421,5 +1047,55 @@ public interface EventBus<P> {
          * @return an error containing the exception if one occurred, {@code null} otherwise
          */
         @Nullable EventError postAndCatch(final E event);
+        
+        /**
+         * Posts the event asynchronously on the given executor, in phase order.
+         *
+         * <p>Each phase is run as one task on the executor, and the listeners of a phase all
+         * complete before the task of the next phase is submitted. The calling thread only
+         * submits the first task.
+         *
+         * <p>If any listener throws an exception, delivery stops and the returned future
+         * completes exceptionally with an {@link EventException} carrying the {@link EventError}.
+         * If the executor rejects a task, the future completes exceptionally with the
+         * rejection exception.
+         *
+         * <p>The number of pending posts is not bounded: their tasks queue up in the executor.
+         * An {@link EventRing} bounds the events waiting for a topic, and lets its overflow policy
+         * decide what happens to the events beyond that bound.
+         *
+         * @param event the event to post
+         * @param executor the executor running the listeners
+         *
+         * @return a future completed with the event once every listener ran
+         */
+        @CanIgnoreReturnValue
+        CompletableFuture<E> postAsync(final E event, final Executor executor);
+        
+        /**
+         * Posts a batch of events to all active registrations in phase order.
+         *
+         * <p>The snapshot is resolved once for the whole batch. If any listener throws an
+         * exception, delivery of the whole batch stops and the exception is propagated.
+         *
+         * @param events the events to post
+         * @param order the order in which listeners and events are paired
+         *
+         * @see BatchOrder
+         */
+        void postAll(final Iterable<? extends E> events, final BatchOrder order);
+        
+        /**
+         * Posts a batch of events, one event after another.
+         *
+         * <p>This is an alias for:
+         * <pre>{@code postAll(events, BatchOrder.EVENT_MAJOR)}</pre>
+         *
+         * @param events the events to post
+         */
+        @ApiStatus.NonExtendable
+        default void postAll(final Iterable<? extends E> events) {
+            postAll(events, BatchOrder.EVENT_MAJOR);
+        }
     }
 }
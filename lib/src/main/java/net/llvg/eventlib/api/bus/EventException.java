@@ -0,0 +1,40 @@
+package net.llvg.eventlib.api.bus;
+
+import lombok.Getter;
+import net.llvg.eventlib.impl.Util;
+
+/**
+ * An exception carrying the {@link EventError} of a failed asynchronous dispatch.
+ *
+ * <p>Futures returned by the asynchronous posting methods complete exceptionally with this
+ * exception when a listener throws. The thrown exception is available as the cause.
+ *
+ * @see EventBus.SnapshotList#postAsync(Object, java.util.concurrent.Executor)
+ */
+public final class EventException
+  extends RuntimeException
+{
+    private static final long serialVersionUID = 0L;
+    
+    /**
+     * -- GETTER --
+     * Returns the details of the failed dispatch.
+     *
+     * @return the event error
+     */
+    @Getter
+    private final transient EventError error;
+    
+    /**
+     * Creates an exception for the given error.
+     *
+     * @param error the error of the failed dispatch
+     */
+    public EventException(final EventError error) {
+        super(
+          Util.format("Listener #{} failed: {}", Util.argNotNull(error, "error").getIndex(), error.getRegistration()),
+          error.getException()
+        );
+        this.error = error;
+    }
+}
@@ -1,5 +1,7 @@
 package net.llvg.eventlib.api.bus;
 
+import net.llvg.eventlib.impl.Util;
+
 /**
  * A functional interface for handling events registered to an {@link EventTopic}.
  *
@@ -16,4 +18,40 @@ public interface EventListener<E> {
      * @param event The event instance.
      */
     void invoke(E event);
+    
+    /**
+     * Returns whether this listener receives {@linkplain Cancellable cancelled} events.
+     *
+     * <p>Read once when the listener is registered.
+     *
+     * @return {@code true} to receive cancelled events, {@code false} by default
+     *
+     * @see #receivingCancelled(EventListener)
+     */
+    default boolean receivesCancelled() {
+        return false;
+    }
+    
+    /**
+     * Returns a listener that delegates to the given one, and receives {@linkplain Cancellable cancelled} events.
+     *
+     * @param listener the listener to delegate to
+     * @param <E> the event type
+     *
+     * @return a listener receiving cancelled events
+     */
+    static <E> EventListener<E> receivingCancelled(final EventListener<E> listener) {
+        Util.argNotNull(listener, "listener");
+        return new EventListener<E>() {
+            @Override
+            public void invoke(final E event) {
+                listener.invoke(event);
+            }
+            
+            @Override
+            public boolean receivesCancelled() {
+                return true;
+            }
+        };
+    }
 }
@@ -0,0 +1,408 @@
+package net.llvg.eventlib.api.bus;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import net.llvg.eventlib.api.metrics.MetricsCollector;
+import net.llvg.eventlib.impl.Util;
+import net.llvg.eventlib.impl.bus.EventRingImpl;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A preallocated ring buffer of events, posted to one topic of an event bus by its own consumer threads.
+ *
+ * <p>Publishing only claims a slot of the ring and writes the event into it, so producers never
+ * run the listeners of the topic. The consumers drain the published events in batches, each batch
+ * posted through one snapshot of the topic with {@link EventBus.SnapshotList#postAll(Iterable, EventBus.BatchOrder)}.
+ * This suits fire-and-forget topics with many small events, whose producers should not wait for the listeners.
+ *
+ * <p>Every published event gets a sequence number, in the order the producers claimed their slots.
+ * With a single consumer, the events are posted in sequence order, so the events of each producer
+ * are posted in the order it published them. With several consumers, batches are posted concurrently,
+ * and only the events within a batch keep their order.
+ *
+ * <p>The consumer threads are started when the ring is built, and run until it is {@linkplain #close() closed}.
+ * A ring that is no longer used must be closed, as its threads keep running otherwise, and those of a
+ * {@linkplain Builder#threadFactory() thread factory} that creates non-daemon threads keep the JVM alive.
+ *
+ * <p>The ring never holds more than its capacity of events. What a producer does when it is full
+ * is chosen by the {@linkplain Builder#overflow() overflow policy}, so that a burst of events
+ * degrades in a predictable way: the producers slow down, or some events are dropped or merged.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * EventRing<LogEvent> ring = EventRing.builder(bus, logTopic)
+ *   .capacity(4096)
+ *   .waitStrategy(EventRing.WaitStrategy.YIELD)
+ *   .build();
+ *
+ * ring.publish(new LogEvent("started"));
+ *
+ * // delivers the events published so far, then stops the consumers
+ * ring.close();
+ * }</pre>
+ *
+ * @param <E> the event type
+ *
+ * @see EventRing#builder(EventBus, EventTopic)
+ */
+public interface EventRing<E>
+  extends AutoCloseable
+{
+    /**
+     * Returns the topic the events are posted to.
+     *
+     * @return the event topic
+     */
+    EventTopic<E> getTopic();
+    
+    /**
+     * Returns the number of slots of the ring.
+     *
+     * @return the capacity
+     */
+    int getCapacity();
+    
+    /**
+     * Returns the number of events published but not taken by a consumer yet.
+     *
+     * @return the queue depth
+     */
+    int getSize();
+    
+    /**
+     * Publishes an event, applying the overflow policy if the ring is full.
+     *
+     * <p>The event is posted later by a consumer thread. Waits for a free slot follow the
+     * {@linkplain Builder#waitStrategy() wait strategy} of the ring.
+     *
+     * @param event the event to publish
+     *
+     * @return {@code false} if the event was dropped by {@link Overflow#DROP_NEWEST}, {@code true} otherwise
+     *
+     * @throws IllegalStateException if the ring is closed
+     *
+     * @see Overflow
+     */
+    @CanIgnoreReturnValue
+    boolean publish(final E event);
+    
+    /**
+     * Publishes an event if the ring has a free slot, without applying the overflow policy.
+     *
+     * <p>With {@link Overflow#COALESCE}, an event merged into a pending one counts as published.
+     * It is still lost if the pending event was itself published by this method and then found
+     * the ring full, or if the ring is closed before the pending event got a slot. Such events are
+     * recorded as dropped by the {@linkplain Builder#metrics() metrics} of the ring.
+     *
+     * @param event the event to publish
+     *
+     * @return {@code true} if the event was published, {@code false} if the ring is full or closed
+     */
+    @CanIgnoreReturnValue
+    boolean tryPublish(final E event);
+    
+    /**
+     * Checks if this ring is closed.
+     *
+     * @return {@code true} if no more events can be published
+     */
+    boolean isClosed();
+    
+    /**
+     * Closes the ring.
+     *
+     * <p>No event can be published afterward. The consumers post every event published before,
+     * and this method waits for them to stop, unless called by one of them.
+     * This method is idempotent and safe to call multiple times.
+     */
+    @Override
+    void close();
+    
+    /**
+     * Creates a builder for a ring posting to a topic of an event bus.
+     *
+     * @param bus the event bus
+     * @param topic the event topic
+     * @param <E> the event type
+     *
+     * @return a new builder instance
+     */
+    @CheckReturnValue
+    static <E> Builder<E> builder(final EventBus<?> bus, final EventTopic<E> topic) {
+        return new Builder<>(Util.argNotNull(bus, "bus"), Util.argNotNull(topic, "topic"));
+    }
+    
+    /**
+     * How producers wait for a free slot, and consumers for published events.
+     */
+    enum WaitStrategy {
+        /**
+         * Spins without pausing. Has the lowest latency, but keeps a core busy per waiting thread.
+         */
+        BUSY_SPIN,
+        
+        /**
+         * Yields the processor between checks. Has a low latency while leaving the core to other
+         * runnable threads, but still keeps idle consumers running.
+         */
+        YIELD,
+        
+        /**
+         * Spins briefly, then parks between checks. Idle consumers park for ever longer periods,
+         * and are unparked by the next publish. Has the highest latency, but idle consumers use
+         * next to no processor time. Producers waiting for a free slot park for short periods.
+         */
+        PARK
+    }
+    
+    /**
+     * What {@link #publish(Object)} does when the ring is full.
+     */
+    enum Overflow {
+        /**
+         * Waits for a free slot. The producers slow down to the pace of the consumers.
+         */
+        BLOCK,
+        
+        /**
+         * Drops the published event. The producers never wait, and the events already
+         * in the ring are kept.
+         */
+        DROP_NEWEST,
+        
+        /**
+         * Drops the oldest event not taken by a consumer yet, then publishes. The producers
+         * never wait for the consumers, and the ring holds the latest events.
+         */
+        DROP_OLDEST,
+        
+        /**
+         * Keeps at most one pending event per {@linkplain Builder#coalesceKey() key}: an event
+         * replaces the pending one with an equal key in its place, whether the ring is full or not.
+         * Otherwise waits for a free slot like {@link #BLOCK}, so the ring bounds the number of keys
+         * pending at once. Suits events that supersede each other, such as the latest state of an entity.
+         *
+         * <p>An event merged into a pending one that never gets a slot, because it was published
+         * with {@link #tryPublish(Object)} to a full ring or the ring was closed meanwhile, is lost
+         * although its producer was told it was published. It is recorded as dropped.
+         */
+        COALESCE
+    }
+    
+    /**
+     * Builder for {@link EventRing}.
+     *
+     * @param <E> the event type
+     *
+     * @see EventRing#builder(EventBus, EventTopic)
+     */
+    @RequiredArgsConstructor (access = AccessLevel.PRIVATE)
+    @Getter
+    @Setter
+    @Accessors (
+      fluent = true,
+      chain = true
+    )
+    @FieldDefaults (level = AccessLevel.PRIVATE)
+    final class Builder<E> {
+        /**
+         * -- GETTER --
+         * Returns the event bus the events are posted to.
+         *
+         * @return the event bus
+         */
+        @Setter (AccessLevel.NONE)
+        final EventBus<?> bus;
+        
+        /**
+         * -- GETTER --
+         * Returns the topic the events are posted to.
+         *
+         * @return the event topic
+         */
+        @Setter (AccessLevel.NONE)
+        final EventTopic<E> topic;
+        
+        /**
+         * -- GETTER --
+         * Returns the number of slots of the ring.
+         *
+         * @return the capacity
+         *
+         * -- SETTER --
+         * Sets the number of slots of the ring, which must be a power of two.
+         * Defaults to {@code 1024}.
+         *
+         * @param capacity the capacity
+         * @return this builder instance
+         */
+        int capacity = 1024;
+        
+        /**
+         * -- GETTER --
+         * Returns the number of consumer threads.
+         *
+         * @return the consumer count
+         *
+         * -- SETTER --
+         * Sets the number of consumer threads. Defaults to {@code 1}, which keeps the events
+         * of each producer in order.
+         *
+         * @param consumers the consumer count
+         * @return this builder instance
+         */
+        int consumers = 1;
+        
+        /**
+         * -- GETTER --
+         * Returns the maximum number of events a consumer posts as one batch.
+         *
+         * @return the maximum batch size
+         *
+         * -- SETTER --
+         * Sets the maximum number of events a consumer posts as one batch. Defaults to {@code 256}.
+         *
+         * @param batchSize the maximum batch size
+         * @return this builder instance
+         */
+        int batchSize = 256;
+        
+        /**
+         * -- GETTER --
+         * Returns the order in which the listeners and the events of a batch are paired.
+         *
+         * @return the batch order
+         *
+         * -- SETTER --
+         * Sets the order in which the listeners and the events of a batch are paired.
+         * Defaults to {@link EventBus.BatchOrder#EVENT_MAJOR}.
+         *
+         * @param order the batch order
+         * @return this builder instance
+         */
+        EventBus.BatchOrder order = EventBus.BatchOrder.EVENT_MAJOR;
+        
+        /**
+         * -- GETTER --
+         * Returns how producers and consumers wait.
+         *
+         * @return the wait strategy
+         *
+         * -- SETTER --
+         * Sets how producers wait for a free slot, and consumers for published events.
+         * Defaults to {@link WaitStrategy#PARK}.
+         *
+         * @param waitStrategy the wait strategy
+         * @return this builder instance
+         */
+        WaitStrategy waitStrategy = WaitStrategy.PARK;
+        
+        /**
+         * -- GETTER --
+         * Returns the factory of the consumer threads.
+         *
+         * @return the thread factory, {@code null} for daemon threads named after the topic
+         *
+         * -- SETTER --
+         * Sets the factory of the consumer threads.
+         * Defaults to {@code null}, which creates daemon threads named after the topic.
+         *
+         * @param threadFactory the thread factory
+         * @return this builder instance
+         */
+        @Nullable ThreadFactory threadFactory = null;
+        
+        /**
+         * -- GETTER --
+         * Returns the handler of the exceptions thrown by listeners.
+         *
+         * @return the error handler, {@code null} for the uncaught exception handler of the consumer
+         *
+         * -- SETTER --
+         * Sets the handler of the exceptions thrown by listeners.
+         *
+         * <p>An exception stops the delivery of its batch, like {@link EventBus.SnapshotList#postAll(Iterable, EventBus.BatchOrder)},
+         * and the consumer goes on with the next batch. Defaults to {@code null}, which passes
+         * the exception to the uncaught exception handler of the consumer thread.
+         *
+         * @param errorHandler the error handler
+         * @return this builder instance
+         */
+        @Nullable Consumer<? super Throwable> errorHandler = null;
+        
+        /**
+         * -- GETTER --
+         * Returns what a producer does when the ring is full.
+         *
+         * @return the overflow policy
+         *
+         * -- SETTER --
+         * Sets what a producer does when the ring is full. Defaults to {@link Overflow#BLOCK}.
+         *
+         * @param overflow the overflow policy
+         * @return this builder instance
+         */
+        Overflow overflow = Overflow.BLOCK;
+        
+        /**
+         * -- GETTER --
+         * Returns the key by which {@link Overflow#COALESCE} merges events.
+         *
+         * @return the key function, {@code null} if unset
+         *
+         * -- SETTER --
+         * Sets the key by which {@link Overflow#COALESCE} merges events, required by that policy.
+         * Keys are compared with {@link Object#equals(Object)}, and must not be {@code null}.
+         *
+         * @param coalesceKey the key function
+         * @return this builder instance
+         */
+        @Nullable Function<? super E, ?> coalesceKey = null;
+        
+        /**
+         * -- GETTER --
+         * Returns the collector receiving the queue metrics of the ring.
+         *
+         * @return the metrics collector, {@code null} if metrics are disabled
+         *
+         * -- SETTER --
+         * Sets the collector receiving the queue metrics of the ring, under the topic of the ring.
+         * Defaults to {@code null}, which disables metrics.
+         *
+         * <p>The ring reports the events dropped or coalesced, and the time producers waited for
+         * a free slot. Its depth is read from {@link EventRing#getSize()} when the metrics are.
+         *
+         * @param metrics the metrics collector, or {@code null} to disable metrics
+         * @return this builder instance
+         *
+         * @see net.llvg.eventlib.api.metrics.DispatchMetrics
+         */
+        @Nullable MetricsCollector metrics = null;
+        
+        /**
+         * Builds the {@link EventRing} and starts its consumer threads, which run until it is closed.
+         *
+         * @return a new event ring instance
+         */
+        @CheckReturnValue
+        public EventRing<E> build() {
+            Util.check(capacity > 0 && (capacity & capacity - 1) == 0, "[capacity] must be a power of two, got {}.", capacity);
+            Util.check(consumers > 0, "[consumers] must be positive, got {}.", consumers);
+            Util.check(batchSize > 0, "[batchSize] must be positive, got {}.", batchSize);
+            Util.argNotNull(order, "order");
+            Util.argNotNull(waitStrategy, "waitStrategy");
+            Util.argNotNull(overflow, "overflow");
+            Util.check(overflow != Overflow.COALESCE || coalesceKey != null, "[coalesceKey] must be set to coalesce events.");
+            return EventRingImpl.create(this);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package net.llvg.eventlib.api.bus;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import net.llvg.eventlib.api.phase.PhaseManager;
 import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
 
 /**
  * An abstract decorator for {@link EventBus} that forwards all operations to a delegate instance.
@@ -34,11 +40,123 @@ public abstract class ForwardingEventBus<P>
         return delegate().register(topic, phase, listener);
     }
     
+    @Override
+    @CanIgnoreReturnValue
+    public <E> Registration<P> registerWeak(
+      final EventTopic<E> topic,
+      final P phase,
+      final EventListener<? super E> listener
+    ) {
+        return delegate().registerWeak(topic, phase, listener);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> Registration<P> register(
+      final EventTopic<E> topic,
+      final Object key,
+      final P phase,
+      final EventListener<? super E> listener
+    ) {
+        return delegate().register(topic, key, phase, listener);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public @Unmodifiable List<Registration<P>> register(final Object subscriber) {
+        return delegate().register(subscriber);
+    }
+    
+    @Override
+    public void unregister(final Object subscriber) {
+        delegate().unregister(subscriber);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public RegistrationGroup<P> batch(final Consumer<? super Transaction<P>> action) {
+        return delegate().batch(action);
+    }
+    
+    @Override
+    public void addInterceptor(final DispatchInterceptor interceptor) {
+        delegate().addInterceptor(interceptor);
+    }
+    
+    @Override
+    public void addInterceptor(final EventTopic<?> topic, final DispatchInterceptor interceptor) {
+        delegate().addInterceptor(topic, interceptor);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public boolean removeInterceptor(final DispatchInterceptor interceptor) {
+        return delegate().removeInterceptor(interceptor);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public boolean removeInterceptor(final EventTopic<?> topic, final DispatchInterceptor interceptor) {
+        return delegate().removeInterceptor(topic, interceptor);
+    }
+    
     @Override
     public @Unmodifiable <E> SnapshotList<P, E> getSnapshot(EventTopic<E> topic) {
         return delegate().getSnapshot(topic);
     }
     
+    @Override
+    @CanIgnoreReturnValue
+    public <E> E post(final EventTopic<E> topic, final E event) {
+        return delegate().post(topic, event);
+    }
+    
+    @Override
+    public @Unmodifiable <E> SnapshotList<P, E> getSnapshot(final EventTopic<E> topic, final Object key) {
+        return delegate().getSnapshot(topic, key);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> E post(final EventTopic<E> topic, final Object key, final E event) {
+        return delegate().post(topic, key, event);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> @Nullable EventError postAndCatch(final EventTopic<E> topic, final E event) {
+        return delegate().postAndCatch(topic, event);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> CompletableFuture<E> postAsync(final EventTopic<E> topic, final E event, final Executor executor) {
+        return delegate().postAsync(topic, event, executor);
+    }
+    
+    @Override
+    public <E> void postAll(final EventTopic<E> topic, final Iterable<? extends E> events, final BatchOrder order) {
+        delegate().postAll(topic, events, order);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> E post(final E event) {
+        return delegate().post(event);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> @Nullable EventError postAndCatch(final E event) {
+        return delegate().postAndCatch(event);
+    }
+    
+    @Override
+    @CanIgnoreReturnValue
+    public <E> CompletableFuture<E> postAsync(final E event, final Executor executor) {
+        return delegate().postAsync(event, executor);
+    }
+    
     @Override
     public String toString() {
         return "ForwardingEventBus{delegate=" + delegate() + "}";
@@ -0,0 +1,62 @@
+package net.llvg.eventlib.api.bus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a subscriber object as an event listener.
+ *
+ * <p>The method must be an instance method with exactly one parameter, whose type is the event
+ * class it listens to. Methods declared in the class of the subscriber and in its superclasses
+ * are considered. The return value, if any, is discarded.
+ *
+ * <p>Example usage:
+ * <pre>
+ * public class MySubscriber {
+ *     &#64;Subscribe
+ *     public void onEvent(MyEvent event) { }
+ *
+ *     &#64;Subscribe (phase = "later")
+ *     public void onEventLater(MyEvent event) { }
+ * }
+ *
+ * bus.register(new MySubscriber());
+ * </pre>
+ *
+ * <p>Where possible, the methods are bound like hand-written lambdas. On Java 17 and later, this
+ * covers methods of any visibility, in classes of any class loader, as long as the module of the
+ * class is open to this library. On Java 8 to 16, it only covers public methods of public classes
+ * that the class loader of this library can see. Other methods go through a
+ * {@link java.lang.invoke.MethodHandle}.
+ *
+ * <p>The bus holds every registered subscriber strongly until {@link EventBus#unregister(Object)}
+ * is called with it, so a subscriber that is no longer needed must be unregistered to be collected.
+ *
+ * @see EventBus#register(Object)
+ * @see EventBus#unregister(Object)
+ */
+@Documented
+@Retention (RetentionPolicy.RUNTIME)
+@Target (ElementType.METHOD)
+public @interface Subscribe {
+    /**
+     * The phase at which the method receives events, parsed by the phase parser of the bus.
+     *
+     * @return the phase name, or an empty string for the default phase
+     *
+     * @see EventBus.Builder#phaseParser(java.util.function.Function)
+     */
+    String phase() default "";
+    
+    /**
+     * Whether the method receives {@linkplain Cancellable cancelled} events.
+     *
+     * @return {@code true} to receive cancelled events
+     *
+     * @see EventListener#receivesCancelled()
+     */
+    boolean receiveCancelled() default false;
+}
@@ -0,0 +1,359 @@
+package net.llvg.eventlib.api.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import lombok.Getter;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventRing;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The built-in {@link MetricsCollector}, keeping counters per topic and a
+ * {@link LatencyHistogram} per listener.
+ *
+ * <p>Recording is lock-free. The statistics of a topic are dropped once the topic is garbage
+ * collected, and those of a listener once its registration is, so that ad-hoc topics and
+ * short-lived listeners do not accumulate.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * DispatchMetrics metrics = new DispatchMetrics();
+ * EventBus<String> bus = EventBus.builder(PhaseManager.builderComparable("default"))
+ *   .metrics(metrics)
+ *   .build();
+ *
+ * // optionally, expose them over JMX
+ * ManagementFactory.getPlatformMBeanServer()
+ *   .registerMBean(metrics, new ObjectName("net.llvg.eventlib:type=DispatchMetrics"));
+ * }</pre>
+ *
+ * @see MetricsCollector
+ * @see DispatchMetricsMXBean
+ */
+public final class DispatchMetrics
+  implements MetricsCollector, DispatchMetricsMXBean
+{
+    // only accessed when a listener list or a ring is created, and when the statistics are read.
+    // the statistics do not refer to their topic, which would keep it from being collected
+    private final Map<EventTopic<?>, TopicStats> topics = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    @Override
+    public TopicStats topic(final EventTopic<?> topic) {
+        return topics.computeIfAbsent(Util.argNotNull(topic, "topic"), TopicStats::new);
+    }
+    
+    /**
+     * Returns the statistics of a topic.
+     *
+     * @param topic the topic
+     *
+     * @return the statistics, or {@code null} if the topic was never used on a metered bus
+     */
+    public @Nullable TopicStats getTopic(final EventTopic<?> topic) {
+        return topics.get(topic);
+    }
+    
+    @Override
+    public long getPostCount() {
+        return sum(TopicStats::getPostCount);
+    }
+    
+    @Override
+    public long getErrorCount() {
+        return sum(TopicStats::getErrorCount);
+    }
+    
+    @Override
+    public long getRebuildCount() {
+        return sum(TopicStats::getRebuildCount);
+    }
+    
+    @Override
+    public long getRebuildNanos() {
+        return sum(TopicStats::getRebuildNanos);
+    }
+    
+    @Override
+    public long getDropCount() {
+        return sum(TopicStats::getDropCount);
+    }
+    
+    @Override
+    public long getCoalesceCount() {
+        return sum(TopicStats::getCoalesceCount);
+    }
+    
+    @Override
+    public long getBlockedNanos() {
+        return sum(TopicStats::getBlockedNanos);
+    }
+    
+    @Override
+    public Map<String, Long> getPostCounts() {
+        return perTopic(TopicStats::getPostCount);
+    }
+    
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        return perTopic(TopicStats::getErrorCount);
+    }
+    
+    @Override
+    public Map<String, Long> getQueueDepths() {
+        val r = new LinkedHashMap<String, Long>();
+        synchronized (topics) {
+            for (val it : topics.entrySet()) {
+                if (it.getValue().hasQueues()) r.put(it.getValue().label, it.getValue().getQueueDepth());
+            }
+        }
+        return r;
+    }
+    
+    @Override
+    public Map<String, Long> getDropCounts() {
+        return perTopic(TopicStats::getDropCount);
+    }
+    
+    @Override
+    public Map<String, Long> getListenerP50Nanos() {
+        return perListener(it -> it.getPercentileNanos(50));
+    }
+    
+    @Override
+    public Map<String, Long> getListenerP99Nanos() {
+        return perListener(it -> it.getPercentileNanos(99));
+    }
+    
+    private long sum(final ToLongFunction<TopicStats> getter) {
+        long r = 0;
+        synchronized (topics) {
+            for (val it : topics.values()) r += getter.applyAsLong(it);
+        }
+        return r;
+    }
+    
+    private Map<String, Long> perTopic(final ToLongFunction<TopicStats> getter) {
+        val r = new LinkedHashMap<String, Long>();
+        synchronized (topics) {
+            for (val it : topics.values()) r.put(it.label, getter.applyAsLong(it));
+        }
+        return r;
+    }
+    
+    private Map<String, Long> perListener(final ToLongFunction<LatencyHistogram> getter) {
+        val r = new LinkedHashMap<String, Long>();
+        synchronized (topics) {
+            for (val topic : topics.values()) {
+                for (val it : topic.getListeners().entrySet()) {
+                    r.put(topic.label + "/" + it.getKey().getListener(), getter.applyAsLong(it.getValue()));
+                }
+            }
+        }
+        return r;
+    }
+    
+    @Override
+    public String toString() {
+        synchronized (topics) {
+            return "DispatchMetrics" + topics;
+        }
+    }
+    
+    /**
+     * The statistics of one topic.
+     */
+    public static final class TopicStats
+      implements TopicRecorder
+    {
+        /**
+         * -- GETTER --
+         * Returns the label of the topic, which keys it in the maps of {@link DispatchMetricsMXBean}.
+         *
+         * <p>The label is the {@linkplain EventTopic#toString() string form} of the topic. For a named
+         * topic, it is followed by {@code @} and the identity hash code of the topic, so that topics
+         * of the same name are told apart.
+         *
+         * @return the label
+         */
+        // the label only, so that the statistics do not keep the topic alive
+        @Getter
+        private final String label;
+        
+        private final LongAdder posts = new LongAdder();
+        
+        private final LongAdder errors = new LongAdder();
+        
+        private final LongAdder rebuilds = new LongAdder();
+        
+        private final LongAdder rebuildNanos = new LongAdder();
+        
+        // only accessed when a snapshot is built, and when the statistics are read
+        private final Map<EventBus.Registration<?>, LatencyHistogram> listeners =
+          Collections.synchronizedMap(new WeakHashMap<>());
+        
+        private final LongAdder drops = new LongAdder();
+        
+        private final LongAdder coalesced = new LongAdder();
+        
+        private final LongAdder blockedNanos = new LongAdder();
+        
+        // rings queueing the events of the topic, dropped once garbage collected
+        private final Set<EventRing<?>> rings = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        
+        private TopicStats(final EventTopic<?> topic) {
+            this.label = topic.getName() == null
+              ? topic.toString()
+              : topic + "@" + Integer.toHexString(System.identityHashCode(topic));
+        }
+        
+        @Override
+        public LatencyHistogram listener(final EventBus.Registration<?> registration) {
+            return listeners.computeIfAbsent(registration, $ -> new LatencyHistogram());
+        }
+        
+        @Override
+        public void posted() {
+            posts.increment();
+        }
+        
+        @Override
+        public void failed(final EventError error) {
+            errors.increment();
+        }
+        
+        @Override
+        public void rebuilt(final long nanos) {
+            rebuilds.increment();
+            rebuildNanos.add(nanos);
+        }
+        
+        @Override
+        public void attached(final EventRing<?> ring) {
+            rings.add(ring);
+        }
+        
+        @Override
+        public void dropped() {
+            drops.increment();
+        }
+        
+        @Override
+        public void coalesced() {
+            coalesced.increment();
+        }
+        
+        @Override
+        public void blocked(final long nanos) {
+            blockedNanos.add(nanos);
+        }
+        
+        /**
+         * Returns the number of posts to this topic.
+         *
+         * @return the post count
+         */
+        public long getPostCount() {
+            return posts.sum();
+        }
+        
+        /**
+         * Returns the number of listeners that failed while posting to this topic.
+         *
+         * @return the error count
+         */
+        public long getErrorCount() {
+            return errors.sum();
+        }
+        
+        /**
+         * Returns the number of times the snapshot of this topic was rebuilt.
+         *
+         * @return the rebuild count
+         */
+        public long getRebuildCount() {
+            return rebuilds.sum();
+        }
+        
+        /**
+         * Returns the time spent rebuilding the snapshot of this topic.
+         *
+         * @return the rebuild time, in nanoseconds
+         */
+        public long getRebuildNanos() {
+            return rebuildNanos.sum();
+        }
+        
+        /**
+         * Returns the number of events pending in the rings of this topic.
+         *
+         * @return the queue depth
+         */
+        public long getQueueDepth() {
+            long r = 0;
+            synchronized (rings) {
+                for (val it : rings) r += it.getSize();
+            }
+            return r;
+        }
+        
+        boolean hasQueues() {
+            return !rings.isEmpty();
+        }
+        
+        /**
+         * Returns the number of events dropped by full or closed rings of this topic.
+         *
+         * @return the drop count
+         */
+        public long getDropCount() {
+            return drops.sum();
+        }
+        
+        /**
+         * Returns the number of events merged into pending ones by rings of this topic.
+         *
+         * @return the coalesce count
+         */
+        public long getCoalesceCount() {
+            return coalesced.sum();
+        }
+        
+        /**
+         * Returns the time producers waited for free slots of rings of this topic.
+         *
+         * @return the blocked time, in nanoseconds
+         */
+        public long getBlockedNanos() {
+            return blockedNanos.sum();
+        }
+        
+        /**
+         * Returns the latency histograms of the listeners posted to from this topic.
+         *
+         * @return a copy of the histograms, by registration
+         */
+        public @Unmodifiable Map<EventBus.Registration<?>, LatencyHistogram> getListeners() {
+            synchronized (listeners) {
+                return Collections.unmodifiableMap(new LinkedHashMap<>(listeners));
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return Util.format(
+              "TopicStats{topic={}, posts={}, errors={}, rebuilds={}}",
+              label, getPostCount(), getErrorCount(), getRebuildCount()
+            );
+        }
+    }
+}
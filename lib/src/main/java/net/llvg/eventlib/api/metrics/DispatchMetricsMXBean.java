@@ -0,0 +1,104 @@
+package net.llvg.eventlib.api.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link DispatchMetrics}.
+ *
+ * <p>Topics are keyed by their {@linkplain DispatchMetrics.TopicStats#getLabel() label}, which tells
+ * topics of the same name apart, and listeners by the label followed by {@code /} and the listener.
+ *
+ * @see DispatchMetrics
+ */
+public interface DispatchMetricsMXBean {
+    /**
+     * Returns the number of posts over all topics.
+     *
+     * @return the post count
+     */
+    long getPostCount();
+    
+    /**
+     * Returns the number of failed listeners over all topics.
+     *
+     * @return the error count
+     */
+    long getErrorCount();
+    
+    /**
+     * Returns the number of snapshot rebuilds over all topics.
+     *
+     * @return the rebuild count
+     */
+    long getRebuildCount();
+    
+    /**
+     * Returns the time spent rebuilding snapshots over all topics.
+     *
+     * @return the rebuild time, in nanoseconds
+     */
+    long getRebuildNanos();
+    
+    /**
+     * Returns the number of events dropped by full rings over all topics.
+     *
+     * @return the drop count
+     */
+    long getDropCount();
+    
+    /**
+     * Returns the number of events merged into pending ones by rings over all topics.
+     *
+     * @return the coalesce count
+     */
+    long getCoalesceCount();
+    
+    /**
+     * Returns the time producers waited for free ring slots over all topics.
+     *
+     * @return the blocked time, in nanoseconds
+     */
+    long getBlockedNanos();
+    
+    /**
+     * Returns the number of posts per topic.
+     *
+     * @return the post counts
+     */
+    Map<String, Long> getPostCounts();
+    
+    /**
+     * Returns the number of failed listeners per topic.
+     *
+     * @return the error counts
+     */
+    Map<String, Long> getErrorCounts();
+    
+    /**
+     * Returns the number of events pending in the rings per topic, for the topics with a ring.
+     *
+     * @return the queue depths
+     */
+    Map<String, Long> getQueueDepths();
+    
+    /**
+     * Returns the number of events dropped by full rings per topic.
+     *
+     * @return the drop counts
+     */
+    Map<String, Long> getDropCounts();
+    
+    /**
+     * Returns the median latency per listener.
+     *
+     * @return the upper bounds of the medians, in nanoseconds
+     */
+    Map<String, Long> getListenerP50Nanos();
+    
+    /**
+     * Returns the 99th percentile latency per listener.
+     *
+     * @return the upper bounds of the 99th percentiles, in nanoseconds
+     */
+    Map<String, Long> getListenerP99Nanos();
+}
@@ -0,0 +1,103 @@
+package net.llvg.eventlib.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.val;
+import lombok.var;
+import net.llvg.eventlib.impl.Util;
+
+/**
+ * A lock-free latency histogram with power-of-two buckets.
+ *
+ * <p>Bucket {@code i} counts the latencies in {@code [2^(i-1), 2^i)} nanoseconds, and bucket 0
+ * those of at most zero, so percentiles are accurate to a factor of two. Recording is
+ * a few atomic increments, and never blocks.
+ *
+ * @see DispatchMetrics
+ */
+public final class LatencyHistogram
+  implements MetricsCollector.ListenerRecorder
+{
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+    
+    private final LongAdder count = new LongAdder();
+    
+    private final LongAdder total = new LongAdder();
+    
+    private final AtomicLong max = new AtomicLong();
+    
+    @Override
+    public void record(final long nanos) {
+        buckets.incrementAndGet(nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos));
+        count.increment();
+        total.add(nanos);
+        
+        long curr;
+        while (nanos > (curr = max.get()) && !max.compareAndSet(curr, nanos)) ;
+    }
+    
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+    
+    /**
+     * Returns the sum of the recorded latencies.
+     *
+     * @return the sum, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+    
+    /**
+     * Returns the highest recorded latency.
+     *
+     * @return the maximum, in nanoseconds, {@code 0} if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+    
+    /**
+     * Returns an upper bound of a percentile of the recorded latencies.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     *
+     * @return the upper bound of the bucket holding the percentile, in nanoseconds,
+     * {@code 0} if nothing was recorded
+     *
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getPercentileNanos(final double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException(Util.format("[percentile] must be within [0, 100], got {}.", percentile));
+        }
+        
+        val counts = new long[64];
+        var sum = 0L;
+        for (int i = 0; i < 64; ++i) sum += counts[i] = buckets.get(i);
+        if (sum == 0) return 0;
+        
+        val rank = Math.max(1, (long) Math.ceil(sum * percentile / 100));
+        var seen = 0L;
+        for (int i = 0; i < 64; ++i) {
+            if ((seen += counts[i]) >= rank) return i == 0 ? 0 : Math.min(1L << i, max.get());
+        }
+        
+        return max.get();
+    }
+    
+    @Override
+    public String toString() {
+        return Util.format(
+          "LatencyHistogram{count={}, p50={}ns, p99={}ns, max={}ns}",
+          getCount(), getPercentileNanos(50), getPercentileNanos(99), getMaxNanos()
+        );
+    }
+}
@@ -0,0 +1,113 @@
+package net.llvg.eventlib.api.metrics;
+
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventRing;
+import net.llvg.eventlib.api.bus.EventTopic;
+
+/**
+ * Receives the dispatch metrics of an event bus.
+ *
+ * <p>The bus resolves a {@link TopicRecorder} once per topic, and a {@link ListenerRecorder}
+ * once per registration and snapshot, so the recording calls made while posting do not
+ * need to look anything up. All methods may be called concurrently from any thread, and
+ * the recording methods are called while posting, so they should be cheap and must not throw.
+ *
+ * <p>A bus built without a collector does not record anything, and posts through the same
+ * code as before. The listeners of {@link net.llvg.eventlib.api.phase.PhaseManager.Delivery#PARALLEL}
+ * and {@link net.llvg.eventlib.api.phase.PhaseManager.Delivery#VIRTUAL} phases are recorded on
+ * the threads they run on.
+ *
+ * <p>An {@link EventRing} built with a collector reports its queue metrics to the recorder of its topic.
+ *
+ * @see EventBus.Builder#metrics(MetricsCollector)
+ * @see EventRing.Builder#metrics(MetricsCollector)
+ * @see DispatchMetrics
+ */
+public interface MetricsCollector {
+    /**
+     * Returns the recorder of a topic.
+     *
+     * <p>May be called again for the same topic, for example after the bus dropped its unused
+     * listener list, in which case the recordings should continue where they stopped.
+     *
+     * @param topic the topic
+     *
+     * @return the recorder of the topic
+     */
+    TopicRecorder topic(final EventTopic<?> topic);
+    
+    /**
+     * Records the dispatch metrics of one topic.
+     */
+    interface TopicRecorder {
+        /**
+         * Returns the recorder of the latencies of a listener posted to from this topic.
+         *
+         * <p>Called whenever a snapshot of the topic is built, so it should return the same
+         * recorder for the same registration.
+         *
+         * @param registration the registration of the listener
+         *
+         * @return the latency recorder
+         */
+        ListenerRecorder listener(final EventBus.Registration<?> registration);
+        
+        /**
+         * Records that an event was posted to the topic.
+         */
+        void posted();
+        
+        /**
+         * Records that a listener failed while an event was posted with
+         * {@link EventBus.SnapshotList#postAndCatch(Object)} or asynchronously.
+         *
+         * @param error the error
+         */
+        void failed(final EventError error);
+        
+        /**
+         * Records that the snapshot of the topic was rebuilt from its registrations.
+         *
+         * @param nanos how long the rebuild took, in nanoseconds
+         */
+        void rebuilt(final long nanos);
+        
+        /**
+         * Records that a ring queues the events of the topic, so that its depth can be read from
+         * {@link EventRing#getSize()}. Does nothing by default.
+         *
+         * @param ring the ring
+         */
+        default void attached(final EventRing<?> ring) { }
+        
+        /**
+         * Records that a ring of the topic dropped an event because it was full. Does nothing by default.
+         */
+        default void dropped() { }
+        
+        /**
+         * Records that a ring of the topic merged an event into a pending one. Does nothing by default.
+         */
+        default void coalesced() { }
+        
+        /**
+         * Records that a producer waited for a free slot of a ring of the topic. Does nothing by default.
+         *
+         * @param nanos how long the producer waited, in nanoseconds
+         */
+        default void blocked(final long nanos) { }
+    }
+    
+    /**
+     * Records the latencies of one listener.
+     */
+    interface ListenerRecorder {
+        /**
+         * Records how long the listener took to handle an event.
+         *
+         * @param nanos the latency, in nanoseconds
+         */
+        void record(final long nanos);
+    }
+}
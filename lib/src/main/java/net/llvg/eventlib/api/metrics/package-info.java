@@ -0,0 +1,21 @@
+/**
+ * Provides the opt-in dispatch metrics of the event bus.
+ *
+ * <p>The {@link net.llvg.eventlib.api.metrics.MetricsCollector} SPI receives post counts, listener
+ * latencies, errors and snapshot rebuilds of a bus built with
+ * {@link net.llvg.eventlib.api.bus.EventBus.Builder#metrics(MetricsCollector)}.
+ * {@link net.llvg.eventlib.api.metrics.DispatchMetrics} is the built-in implementation,
+ * which can also be exposed over JMX.
+ *
+ * <h2>Nullability &amp; Return Values</h2>
+ * See {@link net.llvg.eventlib package} for common annotation documentation.
+ *
+ * @see net.llvg.eventlib.api.metrics.MetricsCollector
+ * @see net.llvg.eventlib.api.metrics.DispatchMetrics
+ */
+@NullMarked
+@CheckReturnValue
+package net.llvg.eventlib.api.metrics;
+
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jspecify.annotations.NullMarked;
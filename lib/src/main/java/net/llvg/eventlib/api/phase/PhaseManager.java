@@ -3,13 +3,14 @@ package net.llvg.eventlib.api.phase;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.CheckReturnValue;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.StampedLock;
 import lombok.AccessLevel;
@@ -21,6 +22,7 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 import lombok.experimental.FieldDefaults;
 import lombok.val;
+import lombok.var;
 import net.llvg.eventlib.impl.Util;
 import net.llvg.eventlib.impl.graph.Node;
 import net.llvg.eventlib.impl.graph.TopoSorter;
@@ -41,8 +43,13 @@ import org.jspecify.annotations.Nullable;
  * is used to deterministically sort the phases involved.
  *
  * <p><b>Cache Invalidation:</b> The sorted result is cached. The {@code onDirty}
- * callback is triggered when the graph structure changes, notifying downstream
- * systems to invalidate their caches.
+ * callback is triggered when the sorted result is invalidated, notifying downstream
+ * systems to invalidate their caches. Links between phases that are already in the
+ * required order keep the cached result valid.
+ *
+ * <p><b>Incremental Sorting:</b> The result is rebuilt incrementally: only the part
+ * of the order starting at the earliest position a change can affect is sorted again,
+ * which yields exactly the order a full sort would.
  *
  * @param <P> The type of the phase identifier (e.g., String, Identifier, or Enum).
  */
@@ -60,6 +67,12 @@ public final class PhaseManager<P> {
     transient StampedLock lock = new StampedLock();
     transient AtomicReference<@Nullable @Unmodifiable List<P>> sorted = new AtomicReference<>();
     
+    // the phases in the last computed order, only modified under the write lock.
+    // the positions before dirtyFrom, and before the first place a phase in added could go, are still valid.
+    transient ArrayList<Wrapper<P>> order = new ArrayList<>();
+    transient AtomicInteger dirtyFrom = new AtomicInteger(Integer.MAX_VALUE);
+    transient ConcurrentLinkedQueue<Wrapper<P>> added = new ConcurrentLinkedQueue<>();
+    
     /**
      * -- GETTER --
      * Returns the default phase identifier.
@@ -123,8 +136,10 @@ public final class PhaseManager<P> {
     private Wrapper<P> makeWrapperIfAbsent(final P phase) {
         return phase2wrapper.computeIfAbsent(
           phase, it -> {
+              final Wrapper<P> r = new Wrapper<>(it);
+              added.add(r);
               if (sorted.getAndSet(null) != null) onDirty.run();
-              return new Wrapper<>(it);
+              return r;
           }
         );
     }
@@ -157,6 +172,9 @@ public final class PhaseManager<P> {
      * <p>Ensures that {@code earlier} appears before {@code later} in the sorted list.
      * If the phases do not exist, they are automatically added.
      *
+     * <p>If {@code earlier} already appears before {@code later}, the sorted list stays
+     * valid, and linking them takes constant time.
+     *
      * @param earlier The phase that should run first.
      * @param later The phase that should run after.
      */
@@ -171,18 +189,74 @@ public final class PhaseManager<P> {
                 modified = from.linkTo(to);
             }
             
-            if (modified && sorted.getAndSet(null) != null) onDirty.run();
+            if (modified && !isOrdered(from, to)) {
+                if (to.position >= 0) dirtyFrom.accumulateAndGet(to.group, Math::min);
+                if (sorted.getAndSet(null) != null) onDirty.run();
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Sets how the listeners of a phase are delivered to.
+     *
+     * <p>If the phase does not exist, it is automatically added. Changing the delivery
+     * invalidates the sorted list and triggers the {@code onDirty} callback, so that
+     * snapshots pick up the new mode.
+     *
+     * @param phase The phase to configure.
+     * @param delivery The delivery mode of the phase.
+     *
+     * @see Delivery
+     */
+    public void setDelivery(final P phase, final Delivery delivery) {
+        Util.argNotNull(delivery, "delivery");
+        
+        val stamp = lock.readLock();
+        try {
+            val wrapper = makeWrapperIfAbsent(phase);
+            
+            final boolean modified;
+            synchronized (wrapper) {
+                modified = wrapper.delivery != delivery;
+                wrapper.delivery = delivery;
+            }
+            
+            if (modified) {
+                sorted.set(null);
+                onDirty.run();
+            }
         } finally {
             lock.unlockRead(stamp);
         }
     }
     
+    /**
+     * Returns how the listeners of a phase are delivered to.
+     *
+     * @param phase The phase to look up.
+     *
+     * @return The delivery mode of the phase, {@link Delivery#SEQUENTIAL} if the phase does not exist.
+     */
+    @CheckReturnValue
+    public Delivery getDelivery(final P phase) {
+        val wrapper = phase2wrapper.get(phase);
+        return wrapper == null ? Delivery.SEQUENTIAL : wrapper.delivery;
+    }
+    
     /**
      * Returns the topologically sorted list of phases.
      *
      * <p>Rebuilds the sorted list if any phases were modified. The result is cached.
      * This operation blocks concurrent modifications until rebuilding finishes.
      *
+     * <p>{@link List#indexOf(Object)} and {@link List#contains(Object)} of the returned list
+     * run in constant time, so it can be used to look up the position of a phase.
+     *
+     * <p>The same instance is returned until the phases are modified, so comparing the
+     * returned lists by identity tells whether anything changed in between.
+     *
      * @return An unmodifiable, sorted list of phases.
      */
     @CheckReturnValue
@@ -191,20 +265,7 @@ public final class PhaseManager<P> {
         if ((r = sorted.get()) == null) {
             val stamp = lock.writeLock(); // exclusive lock
             try {
-                if ((r = sorted.get()) == null) {
-                    val builder = new ArrayList<P>(phase2wrapper.size());
-                    
-                    TopoSorter.sort(
-                      phase2wrapper.values(),
-                      wrappers -> {
-                          for (val it : wrappers) builder.add(it.value);
-                      },
-                      comparator
-                    );
-                    
-                    builder.trimToSize();
-                    sorted.set(r = Collections.unmodifiableList(builder));
-                }
+                if ((r = sorted.get()) == null) sorted.set(r = resort());
             } finally {
                 lock.unlockWrite(stamp);
             }
@@ -213,17 +274,150 @@ public final class PhaseManager<P> {
         return r;
     }
     
+    // in the last computed order, or in the same cycle
+    private static boolean isOrdered(final Wrapper<?> from, final Wrapper<?> to) {
+        return from.position >= 0 && to.position >= 0 && (from.group == to.group || from.position < to.position);
+    }
+    
+    // the order is what the sorter yields: the smallest group that has no unsorted predecessors comes next.
+    // up to the first position a change can affect, it therefore picks the same groups as before,
+    // so only the phases from there on, and the new ones, are sorted again.
+    // links only point forward in the order, so the phases before that position are never reached.
+    // a link closing a cycle merges groups into one keyed by its smallest member, which may come before that
+    // position, so the phases from the first group it can precede are sorted once more.
+    private @Unmodifiable List<P> resort() {
+        val count = order.size();
+        var from = Math.min(dirtyFrom.getAndSet(Integer.MAX_VALUE), count);
+        
+        val nodes = new ArrayList<Wrapper<P>>();
+        if (count == 0) {
+            added.clear();
+            nodes.addAll(phase2wrapper.values());
+        } else {
+            for (Wrapper<P> it; (it = added.poll()) != null; ) {
+                nodes.add(it);
+                
+                // a new phase can not come before the first group that is not smaller
+                from = firstNotSmaller(it, from);
+            }
+            
+            final List<Wrapper<P>> suffix = order.subList(from, count);
+            nodes.addAll(suffix);
+            suffix.clear();
+        }
+        
+        val merged = sort(nodes);
+        if (merged != null && from > 0) {
+            val head = firstNotSmaller(merged, from);
+            if (head < from) {
+                final List<Wrapper<P>> suffix = order.subList(head, order.size());
+                val rest = new ArrayList<>(suffix);
+                suffix.clear();
+                sort(rest);
+            }
+        }
+        
+        Util.check(
+          order.size() == phase2wrapper.size(),
+          "{} of {} phases are sorted.",
+          order.size(), phase2wrapper.size()
+        );
+        
+        @SuppressWarnings ("unchecked")
+        final P[] array = (P[]) new Object[order.size()];
+        for (int i = 0; i < array.length; ++i) array[i] = order.get(i).value;
+        
+        return Util.asIndexedList(array);
+    }
+    
+    // the first group before end that a phase or group keyed by it can precede, end if none
+    private int firstNotSmaller(final Wrapper<P> key, final int end) {
+        for (int i = 0; i < end; ++i) {
+            val head = order.get(i);
+            if (head.group == i && comparator.compare(key, head) <= 0) return i;
+        }
+        return end;
+    }
+    
+    // appends the sorted nodes to the order, and returns the smallest key of the groups merged by new links
+    private @Nullable Wrapper<P> sort(final List<Wrapper<P>> nodes) {
+        @SuppressWarnings ("unchecked")
+        final @Nullable Wrapper<P>[] merged = new Wrapper[1];
+        
+        TopoSorter.sort(
+          nodes,
+          wrappers -> {
+              final int group = order.size();
+              final Wrapper<P> key = wrappers.get(0);
+              final int previous = key.group;
+              for (final Wrapper<P> it : wrappers) {
+                  if (it.group != previous && (merged[0] == null || comparator.compare(key, merged[0]) < 0)) merged[0] = key;
+                  it.position = order.size();
+                  it.group = group;
+                  order.add(it);
+              }
+          },
+          comparator
+        );
+        
+        return merged[0];
+    }
+    
     private static final class Wrapper<P>
       extends Node<Wrapper<P>>
     {
         final P value;
         
+        volatile Delivery delivery = Delivery.SEQUENTIAL;
+        
+        // position in the last computed order, and that of the first phase of its cycle.
+        // -1 until sorted. written under the write lock, so holding the read lock is enough to read them
+        int position = -1;
+        int group = -1;
+        
         Wrapper(final P value) {
             super(new HashSet<>());
             this.value = value;
         }
     }
     
+    /**
+     * How the listeners within one phase are delivered to.
+     *
+     * <p>Listeners of different phases always run in phase order.
+     *
+     * @see #setDelivery(Object, Delivery)
+     */
+    public enum Delivery {
+        /**
+         * The listeners run one after another on the posting thread, in registration order.
+         */
+        SEQUENTIAL,
+        
+        /**
+         * The listeners run in parallel on the parallel pool of the bus, and all of them
+         * complete before the next phase starts.
+         *
+         * <p>Only suitable for listeners that are safe to run concurrently with each other.
+         * If some of them throw, the exception of the listener with the lowest index is reported.
+         */
+        PARALLEL,
+        
+        /**
+         * The listeners run concurrently, each on its own virtual thread, and all of them
+         * complete before the next phase starts.
+         *
+         * <p>Meant for listeners that block, for example on file or database I/O: the posting
+         * thread waits for the slowest of them instead of their sum, and no pool has to be sized
+         * for the number of blocked listeners. Like {@link #PARALLEL}, only suitable for listeners
+         * that are safe to run concurrently with each other, and the exception of the listener
+         * with the lowest index is reported.
+         *
+         * <p>Virtual threads require Java 21. On older runtimes, the listeners run like {@link #SEQUENTIAL}.
+         */
+        VIRTUAL
+    }
+    
     /**
      * Builder for {@link PhaseManager}.
      *
@@ -242,12 +436,18 @@ public final class PhaseManager<P> {
         final P defaultPhase;
         
         /**
+         * -- GETTER --
+         * Returns the callback to be executed when the phase graph changes.
+         *
+         * @return the runnable callback to execute on invalidation
+         *
          * -- SETTER --
          * Sets the callback to be executed when the phase graph changes.
          *
          * @param onDirty the runnable callback to execute on invalidation
          * @return this builder instance
          */
+        @Getter
         Runnable onDirty = () -> { };
         
         
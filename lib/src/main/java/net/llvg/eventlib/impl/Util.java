@@ -5,10 +5,9 @@ import com.google.errorprone.annotations.CheckReturnValue;
 import com.google.errorprone.annotations.Immutable;
 import com.google.errorprone.annotations.ImmutableTypeParameter;
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.util.AbstractList;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.RandomAccess;
 import java.util.Spliterator;
@@ -44,6 +43,13 @@ public final class Util {
         return value;
     }
     
+    // rethrows a listener's exception as it is, checked or not
+    @SneakyThrows
+    @Contract ("_ -> fail")
+    public RuntimeException sneakyThrow(final Throwable t) {
+        throw t;
+    }
+    
     @CheckReturnValue
     public String format(final String format, final @Nullable Object... args) {
         if (format.isEmpty()) return format;
@@ -100,30 +106,21 @@ public final class Util {
         return builder.append(format, prevIndex, size).toString();
     }
     
-    private final Field arrayOfArrayList;
-    
-    static {
-        val classArrayList = ArrayList.class;
-        try {
-            arrayOfArrayList = classArrayList.getDeclaredField("elementData");
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
-        }
-        arrayOfArrayList.setAccessible(true);
-    }
-    
-    @SneakyThrows (Throwable.class)
-    public int copy(final ArrayList<?> src, final Object[] dest, final int offset) {
-        val size = src.size();
-        val array = (Object[]) arrayOfArrayList.get(src);
-        System.arraycopy(array, 0, dest, offset, size);
-        return offset + size;
-    }
-    
     @SafeVarargs
     public <E> @UnmodifiableView List<E> asImmutableList(final E... elements) {
         return new ImmutableArrayAsList<>(argNotNull(elements, "elements"));
     }
+    
+    // like asImmutableList, but indexOf and contains are answered by a hash index
+    @SafeVarargs
+    public <E> @UnmodifiableView List<E> asIndexedList(final E... elements) {
+        argNotNull(elements, "elements");
+        
+        val index = new HashMap<Object, Integer>(Math.max(16, elements.length * 4 / 3 + 1));
+        for (int i = 0; i < elements.length; ++i) index.putIfAbsent(elements[i], i);
+        
+        return new IndexedArrayAsList<>(elements, index);
+    }
 }
 
 @Immutable
@@ -203,3 +200,72 @@ final class ImmutableArrayAsList<@ImmutableTypeParameter E>
     }
 }
 
+@Immutable
+final class IndexedArrayAsList<@ImmutableTypeParameter E>
+  extends AbstractList<E>
+  implements List<E>, RandomAccess, Serializable
+{
+    private static final long serialVersionUID = 0L;
+    
+    private final ImmutableArrayAsList<E> delegate;
+    
+    @SuppressWarnings ("Immutable")
+    private final HashMap<Object, Integer> index;
+    
+    IndexedArrayAsList(final E[] array, final HashMap<Object, Integer> index) {
+        this.delegate = new ImmutableArrayAsList<>(array);
+        this.index = index;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+    
+    @Override
+    public E get(final int index) {
+        return delegate.get(index);
+    }
+    
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+    
+    @NullUnmarked
+    @Override
+    public Object @NotNull [] toArray() {
+        return delegate.toArray();
+    }
+    
+    @NullUnmarked
+    @Override
+    public <T> T @NotNull [] toArray(final T @NotNull [] a) {
+        return delegate.toArray(a);
+    }
+    
+    @NullUnmarked
+    @Override
+    public int indexOf(final Object o) {
+        val r = index.get(o);
+        return r != null ? r : -1;
+    }
+    
+    @NullUnmarked
+    @Override
+    public boolean contains(final Object o) {
+        return index.containsKey(o);
+    }
+    
+    @NullUnmarked
+    @Override
+    public int lastIndexOf(final Object o) {
+        return delegate.lastIndexOf(o);
+    }
+    
+    @Override
+    public Spliterator<E> spliterator() {
+        return delegate.spliterator();
+    }
+}
+
@@ -0,0 +1,15 @@
+package net.llvg.eventlib.impl.bus;
+
+// holder of the active flag of a registration.
+// this is the Java 8 baseline, the multi-release overlay for 17+ uses acquire/release VarHandle accesses instead.
+abstract class ActiveHolder {
+    private volatile boolean active = true;
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(final boolean value) {
+        active = value;
+    }
+}
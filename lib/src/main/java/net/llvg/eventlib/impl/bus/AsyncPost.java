@@ -0,0 +1,52 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventException;
+
+// runs one phase group per task, and submits the next group once the current one completed
+@RequiredArgsConstructor
+final class AsyncPost<P, E>
+  implements Runnable
+{
+    final SnapshotListImpl<P, E> snapshot;
+    final E event;
+    final Executor executor;
+    final CompletableFuture<E> result;
+    
+    // start of the next group, published to the running task by Executor.execute
+    int from = 0;
+    
+    void submit() {
+        try {
+            executor.execute(this);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+    
+    @Override
+    public void run() {
+        val end = snapshot.groupEnd(from);
+        
+        final EventError error;
+        try {
+            error = snapshot.dispatch(event, from, end);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        
+        if (error != null) {
+            result.completeExceptionally(new EventException(error));
+        } else if (end == snapshot.regs.length) {
+            result.complete(event);
+        } else {
+            from = end;
+            submit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.llvg.eventlib.impl.bus;
+
+import net.llvg.eventlib.api.bus.EventListener;
+import org.jspecify.annotations.Nullable;
+
+// template of the compiled dispatchers: every chunk of a compiled snapshot runs in its own hidden copy
+// of this class, so that each unrolled call site, the one to the next chunk included, only ever sees
+// one type and can be inlined. the copies are defined in this package, so they share its access.
+@SuppressWarnings ({ "rawtypes", "unchecked" })
+final class CompiledDispatcher
+  extends Dispatcher
+{
+    static final int SLOTS = 8;
+    
+    private final @Nullable EventListener l0, l1, l2, l3, l4, l5, l6, l7;
+    
+    private final @Nullable Dispatcher next;
+    
+    CompiledDispatcher(final EventListener<?>[] listeners, final int from, final @Nullable Dispatcher next) {
+        l0 = at(listeners, from);
+        l1 = at(listeners, from + 1);
+        l2 = at(listeners, from + 2);
+        l3 = at(listeners, from + 3);
+        l4 = at(listeners, from + 4);
+        l5 = at(listeners, from + 5);
+        l6 = at(listeners, from + 6);
+        l7 = at(listeners, from + 7);
+        
+        this.next = next;
+    }
+    
+    private static @Nullable EventListener<?> at(final EventListener<?>[] listeners, final int index) {
+        return index < listeners.length ? listeners[index] : null;
+    }
+    
+    @Override
+    void dispatch(final Object event) {
+        if (l0 == null) return;
+        l0.invoke(event);
+        if (l1 == null) return;
+        l1.invoke(event);
+        if (l2 == null) return;
+        l2.invoke(event);
+        if (l3 == null) return;
+        l3.invoke(event);
+        if (l4 == null) return;
+        l4.invoke(event);
+        if (l5 == null) return;
+        l5.invoke(event);
+        if (l6 == null) return;
+        l6.invoke(event);
+        if (l7 == null) return;
+        l7.invoke(event);
+        if (next != null) next.dispatch(event);
+    }
+}
@@ -0,0 +1,80 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import lombok.val;
+import net.llvg.eventlib.api.bus.Cancellable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+// a snapshot that compiles its dispatch loop once it was not replaced within the stability window.
+// any registration change replaces the snapshot, so the age of a snapshot is how long it has been stable.
+// the compilation runs once, on the parallel pool of the bus, and the posts keep the loop until it is done.
+final class CompiledSnapshotList<P, E>
+  extends SnapshotListImpl<P, E>
+{
+    // the clock is only read every this many posts
+    private static final int CHECK_MASK = 0xFF;
+    
+    private static final int UNSETTLED = 0;
+    private static final int SETTLED = 1;
+    
+    @SuppressWarnings ("rawtypes")
+    private static final AtomicIntegerFieldUpdater<CompiledSnapshotList> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(CompiledSnapshotList.class, "state");
+    
+    private final long born = System.nanoTime();
+    
+    // the fields of a dispatcher are final, so a racy publication is safe
+    private @Nullable Dispatcher dispatcher;
+    
+    // moves to SETTLED once, by the post that submits the compilation
+    private volatile int state = UNSETTLED;
+    
+    // only samples when the clock is read, so lost updates of racing posts do not matter
+    private int posts;
+    
+    CompiledSnapshotList(
+      final SnapshotFactory<P> factory,
+      final @Unmodifiable List<P> order,
+      final RegistrationImpl<P, ?>[] regs,
+      final int[] ranks,
+      final ListenerList<P> owner,
+      final long stamp
+    ) {
+        super(factory, order, regs, ranks, owner, stamp);
+    }
+    
+    @Override
+    public E post(final E event) {
+        val dispatcher = this.dispatcher;
+        // the generated code does not check for cancellation, so cancellable events take the plain loop
+        if (dispatcher != null && !replaced && !(event instanceof Cancellable)) {
+            dispatcher.dispatch(event);
+            return event;
+        }
+        
+        if (
+          state == UNSETTLED &&
+          (++posts & CHECK_MASK) == 0 &&
+          System.nanoTime() - born >= factory.compileAfter &&
+          STATE.compareAndSet(this, UNSETTLED, SETTLED)
+        ) {
+            compileLater();
+        }
+        
+        return super.post(event);
+    }
+    
+    // a snapshot replaced meanwhile is not compiled anymore, and a shut down pool leaves it on the loop
+    private void compileLater() {
+        try {
+            factory.parallelPool.execute(() -> {
+                if (!replaced) dispatcher = DispatcherCompiler.compile(live);
+            });
+        } catch (RejectedExecutionException e) {
+            // keeps posting through the loop
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package net.llvg.eventlib.impl.bus;
+
+// a straight-line replacement of the dispatch loop of a snapshot
+abstract class Dispatcher {
+    abstract void dispatch(final Object event);
+}
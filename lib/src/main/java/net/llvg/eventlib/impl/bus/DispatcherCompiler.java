@@ -0,0 +1,21 @@
+package net.llvg.eventlib.impl.bus;
+
+import net.llvg.eventlib.api.bus.EventListener;
+import org.jspecify.annotations.Nullable;
+
+// compiles a snapshot into a chain of straight-line dispatchers.
+// this is the Java 8 baseline, which cannot define a copy of the template in this package without
+// a class loader per copy, so the snapshot factory never builds compiled snapshots.
+// the multi-release overlay for 17+ defines every copy as a hidden class instead.
+final class DispatcherCompiler {
+    private DispatcherCompiler() { }
+    
+    // a method rather than a constant, which javac would inline into the callers compiled against the baseline
+    static boolean isSupported() {
+        return false;
+    }
+    
+    static @Nullable Dispatcher compile(final EventListener<?>[] listeners) {
+        return null;
+    }
+}
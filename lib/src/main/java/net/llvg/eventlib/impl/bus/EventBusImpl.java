@@ -1,24 +1,31 @@
 package net.llvg.eventlib.impl.bus;
 
-import java.util.AbstractList;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import lombok.EqualsAndHashCode;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.val;
-import lombok.var;
+import net.llvg.eventlib.api.bus.DispatchInterceptor;
 import net.llvg.eventlib.api.bus.EventBus;
 import net.llvg.eventlib.api.bus.EventError;
 import net.llvg.eventlib.api.bus.EventListener;
 import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.metrics.MetricsCollector;
 import net.llvg.eventlib.api.phase.PhaseManager;
 import net.llvg.eventlib.impl.Util;
 import org.jetbrains.annotations.Unmodifiable;
@@ -31,16 +38,79 @@ public final class EventBusImpl<P>
 {
     private final ConcurrentHashMap<EventTopic<?>, ListenerList<P>> topic2list = new ConcurrentHashMap<>();
     
+    // direct dispatch cache for post(E): the snapshot of every class topic, as last validated by a post.
+    // every change that can affect a snapshot moves the epoch of the bus on, so a post only compares
+    // the epoch with the one its route was validated at, and invalidation stays a single increment.
+    private final ClassValue<PostCache<P>> class2post = new ClassValue<PostCache<P>>() {
+        @Override
+        protected PostCache<P> computeValue(final Class<?> type) {
+            return new PostCache<>();
+        }
+    };
+    
+    // keyed registrations live on a subtopic private to their topic and key, found through this index.
+    // the list of such a subtopic depends on the list of the topic, so its snapshot merges the unkeyed listeners,
+    // and a keyed post costs a lookup here on top of the usual snapshot post, whatever the number of keys.
+    private final ConcurrentHashMap<EventTopic<?>, ConcurrentHashMap<Object, EventTopic<?>>> topic2keys = new ConcurrentHashMap<>();
+    
+    // the topic and key of every keyed subtopic, to forget the key once its list is swept
+    private final ConcurrentHashMap<EventTopic<?>, KeyedTopic> keyedTopics = new ConcurrentHashMap<>();
+    
     private final PhaseManager<P> phases;
     
-    private EventBusImpl(final PhaseManager.Builder<P> phaseManagerBuilder) {
-        this.phases = phaseManagerBuilder
-          .onDirty(() -> topic2list.values().forEach(ListenerList::markDirty))
-          .build();
+    private final SnapshotFactory<P> factory;
+    
+    private final Function<String, P> phaseParser;
+    
+    private final @Nullable MetricsCollector metrics;
+    
+    private static final int MIN_SWEEP_THRESHOLD = 64;
+    
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    
+    private volatile int sweepThreshold = MIN_SWEEP_THRESHOLD;
+    
+    // weak registrations whose listener was collected
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    
+    // registrations made by register(Object), by subscriber identity.
+    // the subscribers are held strongly, as their listeners are, until unregister(Object) is called
+    private final IdentityHashMap<Object, List<RegistrationImpl<P, ?>>> subscribers = new IdentityHashMap<>();
+    
+    private EventBusImpl(final EventBus.Builder<P> builder) {
+        // a phase change moves the epoch on too, so that the routes of post(E) are validated again.
+        // the callback of the caller is chained, and restored on its builder afterwards
+        val phaseBuilder = builder.phases();
+        val onDirty = phaseBuilder.onDirty();
+        try {
+            this.phases = phaseBuilder.onDirty(() -> {
+                advance();
+                onDirty.run();
+            }).build();
+        } finally {
+            phaseBuilder.onDirty(onDirty);
+        }
+        
+        final @Nullable Duration compileAfter = builder.compileAfter();
+        this.factory = new SnapshotFactory<>(
+          phases,
+          builder.parallelPool(),
+          compileAfter == null ? -1 : compileAfter.toNanos()
+        );
+        
+        final @Nullable Function<String, P> phaseParser = builder.phaseParser();
+        this.phaseParser = phaseParser != null ? phaseParser : defaultParser(phases.getDefaultPhase());
+        
+        this.metrics = builder.metrics();
     }
     
-    public static <P> EventBusImpl<P> create(final PhaseManager.Builder<P> phaseManagerBuilder) {
-        return new EventBusImpl<>(Util.argNotNull(phaseManagerBuilder, "phaseManagerBuilder"));
+    // only called once the bus is constructed, as the phases are not shared before
+    private void advance() {
+        factory.advance();
+    }
+    
+    public static <P> EventBusImpl<P> create(final EventBus.Builder<P> builder) {
+        return new EventBusImpl<>(Util.argNotNull(builder, "builder"));
     }
     
     @Override
@@ -50,7 +120,12 @@ public final class EventBusImpl<P>
     
     private ListenerList<P> makeListIfAbsent(final EventTopic<?> topic) {
         ListenerList<P> r;
-        if ((r = topic2list.get(topic)) == null) {
+        while ((r = topic2list.get(topic)) == null || r.retired) {
+            if (r != null) {
+                topic2list.remove(topic, r);
+                continue;
+            }
+            
             val builder = new HashSet<ListenerList<P>>();
             
             for (final EventTopic<?> it : topic.getSupertopics()) {
@@ -59,253 +134,395 @@ public final class EventBusImpl<P>
                 builder.addAll(list.dependencies);
             }
             
-            r = topic2list.computeIfAbsent(topic, $ -> new ListenerList<>(builder));
+            // a dependency retired meanwhile, resolve it again
+            val reported = reportedOf(topic);
+            val created = new ListenerList<P>(topic, reported, builder, factory, metrics == null ? null : metrics.topic(reported));
+            if (!created.link()) continue;
+            
+            if ((r = topic2list.putIfAbsent(topic, created)) == null) {
+                r = created;
+                if (topic2list.size() >= sweepThreshold) sweep();
+                break;
+            }
+            
+            created.retired = true;
+            for (val it : created.dependencies) it.pruneDependents();
         }
         
         return r;
     }
     
+    // keyed subtopics are private to the bus, so the metrics and the interceptors see their topic instead.
+    // this also keeps the metrics from growing with the number of keys
+    private EventTopic<?> reportedOf(final EventTopic<?> topic) {
+        final @Nullable KeyedTopic keyed = keyedTopics.get(topic);
+        return keyed != null ? keyed.topic : topic;
+    }
+    
+    // one lookup and one volatile read as long as the epoch did not move on
+    private SnapshotListImpl<P, ?> sortedOf(final Class<?> type) {
+        val cache = class2post.get(type);
+        final @Nullable Route<P> route = cache.route;
+        val epoch = factory.epoch;
+        if (route != null && route.epoch == epoch) return route.snapshot;
+        
+        // the epoch is read before the snapshot, so a change racing with this post moves it on again
+        val list = route != null && !route.list.retired ? route.list : makeListIfAbsent(EventTopic.forClass(type));
+        val snapshot = list.getSorted();
+        cache.route = new Route<>(list, snapshot, epoch);
+        return snapshot;
+    }
+    
+    private static final class PostCache<P> {
+        // the fields of a route are final, so a racy publication is safe
+        @Nullable Route<P> route;
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Route<P> {
+        final ListenerList<P> list;
+        
+        final SnapshotListImpl<P, ?> snapshot;
+        
+        // the epoch of the bus read before the snapshot was validated
+        final long epoch;
+    }
+    
+    // drops the lists nothing can observe anymore: no registrations, and no lists of subtopics.
+    // such a list only caches the snapshot of its topic, so dropping it costs at most a rebuild,
+    // while topics that are no longer used stop holding memory and stop slowing down their supertopics.
+    // a sweep runs whenever the number of lists doubled since the last one, which amortizes it over list creation.
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) return;
+        try {
+            val pruned = new HashSet<ListenerList<P>>();
+            
+            for (val it : topic2list.entrySet()) {
+                val list = it.getValue();
+                if (list.tryRetire()) {
+                    topic2list.remove(it.getKey(), list);
+                    pruned.addAll(list.dependencies);
+                    
+                    final @Nullable KeyedTopic keyed = keyedTopics.get(list.topic);
+                    if (keyed != null) forget(list.topic, keyed);
+                }
+            }
+            
+            for (val it : pruned) it.pruneDependents();
+            
+            sweepThreshold = Math.max(MIN_SWEEP_THRESHOLD, topic2list.size() * 2);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+    
     @Override
     public <E> EventBus.Registration<P> register(
       final EventTopic<E> topic,
       final P phase,
       final EventListener<? super E> listener
     ) {
-        val list = makeListIfAbsent(topic);
+        expungeCollected();
         
-        val result = new Registration<>(phases.add(phase), listener);
-        result.list = list;
+        val result = new RegistrationImpl<>(phases.add(phase), Util.argNotNull(listener, "listener"));
+        attach(topic, Collections.singletonList(result));
         
-        list.modify(result, true);
         return result;
     }
     
     @Override
-    @SuppressWarnings ("unchecked")
-    public <E> EventBus.@Unmodifiable SnapshotList<P, E> getSnapshot(final EventTopic<E> topic) {
-        return (EventBus.SnapshotList<P, E>) makeListIfAbsent(topic).getSorted(phases);
+    public <E> EventBus.Registration<P> registerWeak(
+      final EventTopic<E> topic,
+      final P phase,
+      final EventListener<? super E> listener
+    ) {
+        expungeCollected();
+        
+        val weak = new WeakListener<E>(Util.argNotNull(listener, "listener"), collected);
+        val result = new RegistrationImpl<>(phases.add(phase), weak);
+        weak.registration = result;
+        attach(topic, Collections.singletonList(result));
+        
+        return result;
     }
     
-    @RequiredArgsConstructor
-    @ToString
-    @EqualsAndHashCode
-    private static final class Registration<P, E>
-      implements EventBus.Registration<P>
-    {
-        transient volatile @Nullable ListenerList<P> list;
-        
-        @Getter
-        final P phase;
+    @Override
+    public <E> EventBus.Registration<P> register(
+      final EventTopic<E> topic,
+      final Object key,
+      final P phase,
+      final EventListener<? super E> listener
+    ) {
+        Util.argNotNull(topic, "topic");
+        Util.argNotNull(key, "key");
+        expungeCollected();
         
-        @Getter
-        final EventListener<? super E> listener;
+        val result = new RegistrationImpl<>(phases.add(phase), Util.argNotNull(listener, "listener"));
+        val keys = topic2keys.computeIfAbsent(topic, $ -> new ConcurrentHashMap<>());
         
-        volatile boolean active = true;
+        // the lock of the index keeps a sweep from forgetting the key while it is attached
+        synchronized (keys) {
+            final @Nullable EventTopic<?> known = keys.get(key);
+            final EventTopic<?> keyed = known != null ? known : EventTopic.of(keyedName(topic, key), topic);
+            val entry = new KeyedTopic(topic, key);
+            
+            // indexed before attaching, so that a new list reports to the metrics of the topic,
+            // and again after, as a sweep run by this very attach may have forgotten the key
+            keyedTopics.put(keyed, entry);
+            attach(keyed, Collections.singletonList(result));
+            keyedTopics.put(keyed, entry);
+            keys.put(key, keyed);
+        }
         
-        @Override
-        public boolean isRegistered() {
-            val list = this.list;
-            return list != null && list.contains(this);
+        return result;
+    }
+    
+    private static @Nullable String keyedName(final EventTopic<?> topic, final Object key) {
+        final @Nullable String name = topic.getName();
+        return name == null ? null : Util.format("{}[{}]", name, key);
+    }
+    
+    // a registration for the key may have made a new list meanwhile, then the key stays
+    private void forget(final EventTopic<?> topic, final KeyedTopic keyed) {
+        val keys = topic2keys.get(keyed.topic);
+        synchronized (keys) {
+            if (topic2list.containsKey(topic)) return;
+            
+            keys.remove(keyed.key, topic);
+            keyedTopics.remove(topic, keyed);
         }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class KeyedTopic {
+        final EventTopic<?> topic;
         
-        @Override
-        public void unregister() {
-            val list = this.list;
+        final Object key;
+    }
+    
+    // adds the registrations to the list of the topic, retrying if that list was retired meanwhile
+    private void attach(final EventTopic<?> topic, final List<? extends RegistrationImpl<P, ?>> regs) {
+        ListenerList<P> list;
+        do {
+            list = makeListIfAbsent(topic);
+            for (val it : regs) it.list = list;
+        } while (!list.modifyAll(regs, true));
+    }
+    
+    // unregisters the weak registrations whose listener was collected, in one batch per list.
+    // runs on registration, so posting never polls the queue.
+    private void expungeCollected() {
+        Reference<?> ref;
+        if ((ref = collected.poll()) == null) return;
+        
+        val batch = new ArrayList<RegistrationImpl<P, ?>>();
+        do {
+            @SuppressWarnings ("unchecked")
+            final @Nullable RegistrationImpl<P, ?> reg = (RegistrationImpl<P, ?>) ((WeakListener<?>) ref).registration;
+            if (reg != null) batch.add(reg);
+        } while ((ref = collected.poll()) != null);
+        
+        unregisterAll(batch);
+    }
+    
+    void unregisterAll(final List<RegistrationImpl<P, ?>> regs) {
+        apply(Collections.emptyMap(), regs);
+    }
+    
+    // applies the changes with one commit per affected list, so that every snapshot is dropped once
+    private void apply(
+      final Map<EventTopic<?>, List<RegistrationImpl<P, ?>>> added,
+      final List<RegistrationImpl<P, ?>> removed
+    ) {
+        val batches = new LinkedHashMap<ListenerList<P>, Batch<P>>();
+        
+        for (val reg : removed) {
+            val list = reg.list;
             if (list != null) {
-                list.modify(this, false);
-                this.list = null;
+                batches.computeIfAbsent(list, $ -> new Batch<>()).removed.add(reg);
+                reg.list = null;
             }
         }
         
-        @SuppressWarnings ("unchecked")
-        void invoke(final Object event) {
-            if (active) listener.invoke((E) event);
-        }
+        added.forEach((topic, regs) -> {
+            val list = makeListIfAbsent(topic);
+            for (val it : regs) it.list = list;
+            
+            val batch = batches.computeIfAbsent(list, $ -> new Batch<>());
+            batch.topic = topic;
+            batch.added.addAll(regs);
+        });
         
-        @Override
-        public void setActive(final boolean active) {
-            this.active = active;
-        }
+        batches.forEach((list, batch) -> {
+            // a retired list held no registrations, so only the additions have to move on
+            final @Nullable EventTopic<?> topic = batch.topic;
+            if (!list.commit(batch.added, batch.removed) && topic != null) attach(topic, batch.added);
+        });
+    }
+    
+    private static final class Batch<P> {
+        @Nullable EventTopic<?> topic = null;
         
-        @Override
-        public boolean isActive() {
-            return active;
-        }
+        final ArrayList<RegistrationImpl<P, ?>> added = new ArrayList<>();
+        
+        final ArrayList<RegistrationImpl<P, ?>> removed = new ArrayList<>();
     }
     
-    private static final class ListenerList<P> {
-        private static final Function<Object, ArrayList<Registration<?, ?>>> newArrayList = $ -> new ArrayList<>();
+    @Override
+    public EventBus.RegistrationGroup<P> batch(final Consumer<? super EventBus.Transaction<P>> action) {
+        Util.argNotNull(action, "action");
+        expungeCollected();
         
-        final @Unmodifiable List<ListenerList<P>> dependencies;
-        final ArrayList<ListenerList<P>> dependents = new ArrayList<>();
+        val tx = new TransactionImpl<P>(phases);
+        try {
+            action.accept(tx);
+        } finally {
+            tx.closed = true;
+        }
         
-        final ConcurrentHashMap.KeySetView<Registration<P, ?>, Boolean> registry = ConcurrentHashMap.newKeySet();
+        apply(tx.addedByTopic(), tx.removed);
+        for (val it : tx.foreign) it.unregister();
         
-        transient final StampedLock lock = new StampedLock();
-        transient volatile @Nullable SnapshotList<P, ?> sorted = null;
+        return new RegistrationGroupImpl<>(this, new ArrayList<>(tx.added.keySet()));
+    }
+    
+    @Override
+    public void addInterceptor(final DispatchInterceptor interceptor) {
+        Util.argNotNull(interceptor, "interceptor");
         
-        @SuppressWarnings ("unchecked")
-        ListenerList(final @Unmodifiable HashSet<ListenerList<P>> dependencies) {
-            this.dependencies = Util.asImmutableList(dependencies.toArray(new ListenerList[0]));
-            
-            for (val it : this.dependencies) {
-                val stamp = it.lock.writeLock(); // exclusive lock
-                try {
-                    it.dependents.add(this);
-                } finally {
-                    it.lock.unlockWrite(stamp);
-                }
-            }
+        synchronized (factory) {
+            factory.interceptors = SnapshotFactory.concat(factory.interceptors, new DispatchInterceptor[]{ interceptor });
         }
+        for (val it : topic2list.values()) it.invalidate();
+    }
+    
+    @Override
+    public void addInterceptor(final EventTopic<?> topic, final DispatchInterceptor interceptor) {
+        Util.argNotNull(topic, "topic");
+        Util.argNotNull(interceptor, "interceptor");
         
-        void markDirty() {
-            val stamp = lock.readLock();
-            try {
-                sorted = null;
-            } finally {
-                lock.unlockRead(stamp);
-            }
+        synchronized (factory) {
+            factory.topic2interceptors.merge(topic, new DispatchInterceptor[]{ interceptor }, SnapshotFactory::concat);
         }
-        
-        boolean contains(final Registration<P, ?> registration) {
-            return registry.contains(registration);
+        invalidate(topic);
+    }
+    
+    @Override
+    public boolean removeInterceptor(final DispatchInterceptor interceptor) {
+        synchronized (factory) {
+            val curr = factory.interceptors;
+            if ((factory.interceptors = SnapshotFactory.without(curr, interceptor)) == curr) return false;
         }
-        
-        void modify(final Registration<P, ?> registration, final boolean add) {
-            if (registry.contains(registration) == add) return;
+        for (val it : topic2list.values()) it.invalidate();
+        return true;
+    }
+    
+    @Override
+    public boolean removeInterceptor(final EventTopic<?> topic, final DispatchInterceptor interceptor) {
+        synchronized (factory) {
+            final DispatchInterceptor @Nullable [] curr = factory.topic2interceptors.get(topic);
+            if (curr == null) return false;
             
-            val stamp = lock.readLock(); // shared lock
-            try {
-                sorted = null;
-                val count = dependents.size();
-                
-                val stamps = new long[count];
-                var i = 0;
-                for (; i < count; ++i) {
-                    val list = dependents.get(i);
-                    stamps[i] = list.lock.readLock();
-                    list.sorted = null;
-                }
-                
-                try {
-                    if (add) {
-                        registry.add(registration);
-                    } else {
-                        registry.remove(registration);
-                    }
-                } finally {
-                    while (i-- > 0) dependents.get(i).lock.unlockRead(stamps[i]);
-                }
-            } finally {
-                lock.unlockRead(stamp);
+            val next = SnapshotFactory.without(curr, interceptor);
+            if (next == curr) return false;
+            
+            if (next.length == 0) {
+                factory.topic2interceptors.remove(topic);
+            } else {
+                factory.topic2interceptors.put(topic, next);
             }
         }
-        
-        SnapshotList<P, ?> getSorted(final PhaseManager<P> manager) {
-            SnapshotList<P, ?> r;
-            if ((r = sorted) == null) {
-                val phases = manager.getSorted();
-                
-                val stamp = lock.writeLock(); // exclusive
-                try {
-                    if ((r = sorted) == null) {
-                        val phase2actions = new HashMap<P, ArrayList<Registration<?, ?>>>(phases.size());
-                        var size = registry.size();
-                        
-                        for (val reg : registry) {
-                            phase2actions.computeIfAbsent(reg.phase, newArrayList).add(reg);
-                        }
-                        
-                        for (val it : dependencies) {
-                            size += it.registry.size();
-                            
-                            for (val reg : it.registry) {
-                                phase2actions.computeIfAbsent(reg.phase, newArrayList).add(reg);
-                            }
-                        }
-                        
-                        @SuppressWarnings ("unchecked")
-                        final Registration<P, ?>[] b = new Registration[size];
-                        
-                        int i = 0;
-                        for (val phase : phases) {
-                            val list = phase2actions.get(phase);
-                            if (list != null && !list.isEmpty()) {
-                                i = Util.copy(list, b, i);
-                            }
-                        }
-                        
-                        Util.check(i == size, "{} of {} registration are processed.", i, size);
-                        
-                        sorted = (r = new SnapshotList<>(b));
-                    }
-                } finally {
-                    lock.unlockWrite(stamp);
-                }
-            }
-            
-            return r;
+        invalidate(topic);
+        return true;
+    }
+    
+    // the list of a subtopic depends on the list of the topic, so a missing list has no snapshots to drop
+    private void invalidate(final EventTopic<?> topic) {
+        val list = topic2list.get(topic);
+        if (list != null) list.invalidate();
+    }
+    
+    @SuppressWarnings ({ "unchecked", "rawtypes" })
+    private static <P> Function<String, P> defaultParser(final P defaultPhase) {
+        if (defaultPhase instanceof String) return it -> (P) it;
+        if (defaultPhase instanceof Enum) {
+            val type = ((Enum) defaultPhase).getDeclaringClass();
+            return it -> (P) Enum.valueOf(type, it);
         }
+        
+        return it -> {
+            throw new IllegalStateException(Util.format("[phaseParser] must be specified to parse phase '{}'.", it));
+        };
     }
     
-    @RequiredArgsConstructor
-    private static final class SnapshotList<P, E>
-      extends AbstractList<EventBus.Registration<P>>
-      implements EventBus.SnapshotList<P, E>
-    {
-        final Registration<P, ?>[] regs;
+    @Override
+    public @Unmodifiable List<EventBus.Registration<P>> register(final Object subscriber) {
+        Util.argNotNull(subscriber, "subscriber");
+        expungeCollected();
         
-        @Override
-        public EventBus.Registration<P> get(final int index) {
-            return regs[index];
-        }
+        val methods = SubscriberMethod.of(subscriber.getClass());
         
-        @Override
-        public int size() {
-            return regs.length;
-        }
+        // one batch per topic, so that every list is committed once
+        val batches = new LinkedHashMap<EventTopic<?>, List<RegistrationImpl<P, ?>>>();
+        val result = new ArrayList<RegistrationImpl<P, ?>>(methods.size());
         
-        @Override
-        public E post(final E event) {
-            for (val reg : regs) reg.invoke(event);
+        for (val method : methods) {
+            val phase = method.phase.isEmpty() ? phases.getDefaultPhase() : phaseParser.apply(method.phase);
+            val reg = new RegistrationImpl<>(phases.add(phase), method.bind(subscriber), method.receiveCancelled);
             
-            return event;
+            batches.computeIfAbsent(method.topic, $ -> new ArrayList<>()).add(reg);
+            result.add(reg);
         }
         
-        @Override
-        public @Nullable EventError postAndCatch(E event) {
-            int i = 0;
-            
-            try {
-                for (; i < regs.length; ++i) {
-                    regs[i].invoke(event);
-                }
-            } catch (Throwable e) {
-                return new EventError(e, i, regs[i]);
-            }
-            
-            return null;
+        synchronized (subscribers) {
+            subscribers.computeIfAbsent(subscriber, $ -> new ArrayList<>()).addAll(result);
         }
         
-        @Override
-        public Object[] toArray() {
-            return Arrays.copyOf(regs, regs.length);
-        }
+        apply(batches, Collections.emptyList());
         
-        @SuppressWarnings ("all")
-        @Override
-        public <T extends @Nullable Object> T[] toArray(final T[] a) {
-            if (a.length < regs.length) {
-                return Arrays.copyOf(regs, regs.length, (Class<? extends T[]>) a.getClass());
-            }
-            
-            System.arraycopy(regs, 0, a, 0, regs.length);
-            
-            if (a.length > regs.length) {
-                a[regs.length] = null;
-            }
-            
-            return a;
+        return Util.asImmutableList(result.toArray(new EventBus.Registration[0]));
+    }
+    
+    @Override
+    public void unregister(final Object subscriber) {
+        final @Nullable List<RegistrationImpl<P, ?>> regs;
+        synchronized (subscribers) {
+            regs = subscribers.remove(subscriber);
         }
+        if (regs != null) unregisterAll(regs);
+    }
+    
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> EventBus.@Unmodifiable SnapshotList<P, E> getSnapshot(final EventTopic<E> topic) {
+        return (EventBus.SnapshotList<P, E>) makeListIfAbsent(topic).getSorted();
+    }
+    
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> EventBus.@Unmodifiable SnapshotList<P, E> getSnapshot(final EventTopic<E> topic, final Object key) {
+        Util.argNotNull(key, "key");
+        
+        val keys = topic2keys.get(topic);
+        final @Nullable EventTopic<?> keyed = keys == null ? null : keys.get(key);
+        return (EventBus.SnapshotList<P, E>) makeListIfAbsent(keyed != null ? keyed : topic).getSorted();
+    }
+    
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> E post(final E event) {
+        return ((SnapshotListImpl<P, E>) sortedOf(event.getClass())).post(event);
+    }
+    
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> @Nullable EventError postAndCatch(final E event) {
+        return ((SnapshotListImpl<P, E>) sortedOf(event.getClass())).postAndCatch(event);
+    }
+    
+    @Override
+    @SuppressWarnings ("unchecked")
+    public <E> CompletableFuture<E> postAsync(final E event, final Executor executor) {
+        return ((SnapshotListImpl<P, E>) sortedOf(event.getClass())).postAsync(event, executor);
     }
 }
@@ -0,0 +1,434 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.val;
+import lombok.var;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventRing;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.metrics.MetricsCollector;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.Nullable;
+
+// a multi-producer ring in the style of the disruptor, with sequences counted from 0.
+// producers claim a sequence with a cas on the cursor, then write the event into its slot,
+// which publishes it: a slot is non-null exactly while it holds an event not taken yet.
+// consumers share a take sequence, claim a range of it with a cas, and wait for each slot of the range to be written.
+// a consumer copies the events out of its range before posting them, which frees their slots.
+// a producer may only claim a sequence once its slot was freed, which the take sequence and the progress
+// of the consumers tell.
+// a producer dropping the oldest event takes it like a consumer, with a progress entry of its own.
+// coalescing rings hold a Pending per key in their slots, into which later events of the key are swapped.
+// idle consumers of a parking ring back off to ever longer parks, and producers unpark them once they
+// published: a consumer counts itself as sleeping before it checks the cursor a last time, and a producer
+// reads the count after it moved the cursor, so at least one of them sees the other.
+@ApiStatus.Internal
+public final class EventRingImpl<E>
+  implements EventRing<E>
+{
+    // marks the cursor of a closed ring, so that closing and claiming race on the same cas
+    private static final long CLOSED = Long.MIN_VALUE;
+    
+    // progress entries spaced a cache line apart, so that consumers do not share one
+    private static final int STRIDE = 16;
+    
+    private static final int SPINS = 100;
+    
+    private static final long PARK_NANOS = 50_000;
+    
+    // the longest park of an idle consumer, which only bounds a wake-up that was somehow missed
+    private static final long MAX_PARK_NANOS = 100_000_000;
+    
+    // swapped into a Pending once taken, so that later events of its key get a new one
+    private static final Object TAKEN = new Object();
+    
+    private final EventBus<?> bus;
+    
+    @Getter
+    private final EventTopic<E> topic;
+    
+    @Getter
+    private final int capacity;
+    
+    private final int mask;
+    
+    private final int batchSize;
+    
+    private final EventBus.BatchOrder order;
+    
+    private final EventRing.WaitStrategy waitStrategy;
+    
+    private final @Nullable Consumer<? super Throwable> errorHandler;
+    
+    private final EventRing.Overflow overflow;
+    
+    private final @Nullable Function<? super E, ?> coalesceKey;
+    
+    // pending events by key, only used when coalescing
+    private final ConcurrentHashMap<Object, Pending> pending = new ConcurrentHashMap<>();
+    
+    private final MetricsCollector.@Nullable TopicRecorder recorder;
+    
+    private final AtomicReferenceArray<Object> slots;
+    
+    // next sequence to claim by producers, with the CLOSED bit once closed
+    private final AtomicLong cursor = new AtomicLong();
+    
+    // next sequence to take by consumers
+    private final AtomicLong taken = new AtomicLong();
+    
+    // the start of the range each consumer is copying, Long.MAX_VALUE while it copies none.
+    // every sequence below both the minimum and the take sequence has a free slot.
+    // the last entry belongs to the producer dropping the oldest event
+    private final AtomicLongArray progress;
+    
+    private final Object dropLock = new Object();
+    
+    // minimum of the progress last seen by a producer, so that most claims do not scan it
+    private volatile long freed;
+    
+    private final Thread[] consumers;
+    
+    // consumers about to park, or parked, waiting for events
+    private final AtomicInteger sleeping = new AtomicInteger();
+    
+    private EventRingImpl(final EventRing.Builder<E> builder) {
+        this.bus = builder.bus();
+        this.topic = builder.topic();
+        this.capacity = builder.capacity();
+        this.mask = capacity - 1;
+        this.batchSize = builder.batchSize();
+        this.order = builder.order();
+        this.waitStrategy = builder.waitStrategy();
+        this.errorHandler = builder.errorHandler();
+        this.overflow = builder.overflow();
+        this.coalesceKey = overflow == EventRing.Overflow.COALESCE ? builder.coalesceKey() : null;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.progress = new AtomicLongArray((builder.consumers() + 1) * STRIDE);
+        for (int i = 0; i <= builder.consumers(); ++i) progress.set(i * STRIDE, Long.MAX_VALUE);
+        
+        final @Nullable MetricsCollector metrics = builder.metrics();
+        this.recorder = metrics == null ? null : metrics.topic(topic);
+        if (recorder != null) recorder.attached(this);
+        
+        final @Nullable ThreadFactory threadFactory = builder.threadFactory();
+        this.consumers = new Thread[builder.consumers()];
+        for (int i = 0; i < consumers.length; ++i) {
+            final int index = i;
+            final Runnable task = () -> consume(index);
+            if (threadFactory != null) {
+                consumers[i] = threadFactory.newThread(task);
+            } else {
+                consumers[i] = new Thread(task, Util.format("{}-consumer-{}", topic, i));
+                consumers[i].setDaemon(true);
+            }
+        }
+        for (val it : consumers) it.start();
+    }
+    
+    public static <E> EventRingImpl<E> create(final EventRing.Builder<E> builder) {
+        return new EventRingImpl<>(Util.argNotNull(builder, "builder"));
+    }
+    
+    @Override
+    public boolean publish(final E event) {
+        Util.argNotNull(event, "event");
+        return coalesceKey != null ? coalesce(event, coalesceKey, true) : offer(event, true);
+    }
+    
+    @Override
+    public boolean tryPublish(final E event) {
+        Util.argNotNull(event, "event");
+        return coalesceKey != null ? coalesce(event, coalesceKey, false) : offer(event, false);
+    }
+    
+    // writes the item into a claimed slot, applying the overflow policy if the ring is full
+    private boolean offer(final Object item, final boolean overflows) {
+        var seq = claim();
+        if (seq < 0) {
+            if (!overflows) return false;
+            Util.check(seq != CLOSED, "Ring of {} is closed.", topic);
+            
+            switch (overflow) {
+                case DROP_NEWEST:
+                    if (recorder != null) recorder.dropped();
+                    return false;
+                case DROP_OLDEST:
+                    for (int idle = 0; (seq = claim()) == -1; ) {
+                        if (!dropOldest()) idle = idle(idle);
+                    }
+                    break;
+                default:
+                    val start = System.nanoTime();
+                    for (int idle = 0; (seq = claim()) == -1; ) idle = idle(idle);
+                    if (recorder != null) recorder.blocked(System.nanoTime() - start);
+                    break;
+            }
+            Util.check(seq != CLOSED, "Ring of {} is closed.", topic);
+        }
+        
+        slots.lazySet((int) seq & mask, item);
+        if (sleeping.get() != 0) wakeConsumers();
+        return true;
+    }
+    
+    // swaps the event into the pending one of its key, or publishes a new one
+    private boolean coalesce(final E event, final Function<? super E, ?> coalesceKey, final boolean overflows) {
+        if (isClosed()) {
+            Util.check(!overflows, "Ring of {} is closed.", topic);
+            return false;
+        }
+        
+        val key = Util.checkNotNull(coalesceKey.apply(event), "Coalesce key of {} must not be null.", event);
+        
+        while (true) {
+            final @Nullable Pending curr = pending.get(key);
+            if (curr != null) {
+                val prev = curr.get();
+                if (prev == TAKEN) {
+                    pending.remove(key, curr);
+                } else if (curr.compareAndSet(prev, event)) {
+                    if (recorder != null) recorder.coalesced();
+                    return true;
+                }
+                continue;
+            }
+            
+            val created = new Pending(key, event);
+            if (pending.putIfAbsent(key, created) != null) continue;
+            
+            boolean published = false;
+            try {
+                published = offer(created, overflows);
+            } finally {
+                if (!published) retract(created, event);
+            }
+            return published;
+        }
+    }
+    
+    // seals a pending event that found the ring full or closed, so that no other event is swapped in anymore.
+    // an event swapped in meanwhile was reported as published, so it is recorded as dropped
+    private void retract(final Pending created, final E event) {
+        val latest = created.getAndSet(TAKEN);
+        pending.remove(created.key, created);
+        if (latest != event && recorder != null) recorder.dropped();
+    }
+    
+    // takes the oldest event not taken yet and discards it, following the protocol of the consumers.
+    // false if the ring is not full of pending events, but a consumer is still copying the events it took
+    private boolean dropOldest() {
+        val index = consumers.length * STRIDE;
+        synchronized (dropLock) {
+            try {
+                while (true) {
+                    val from = taken.get();
+                    progress.set(index, from);
+                    
+                    if ((cursor.get() & ~CLOSED) - from < capacity) return false;
+                    if (!taken.compareAndSet(from, from + 1)) continue;
+                    
+                    take((int) from & mask);
+                    if (recorder != null) recorder.dropped();
+                    return true;
+                }
+            } finally {
+                progress.set(index, Long.MAX_VALUE);
+            }
+        }
+    }
+    
+    // a claimed slot may not be written yet, its producer is about to
+    private Object take(final int slot) {
+        Object item;
+        for (int idle = 0; (item = slots.get(slot)) == null; ) idle = idle(idle);
+        slots.lazySet(slot, null);
+        
+        if (coalesceKey == null) return item;
+        
+        val it = (Pending) item;
+        val event = it.getAndSet(TAKEN);
+        pending.remove(it.key, it);
+        return event;
+    }
+    
+    // the claimed sequence, -1 if the ring is full, or CLOSED
+    private long claim() {
+        long curr;
+        do {
+            if ((curr = cursor.get()) < 0) return CLOSED;
+            if (curr - capacity >= freed && curr - capacity >= (freed = minProgress())) return -1;
+        } while (!cursor.compareAndSet(curr, curr + 1));
+        
+        return curr;
+    }
+    
+    // the take sequence is read first: a consumer that advanced it since published its progress before
+    private long minProgress() {
+        var r = taken.get();
+        for (int i = 0; i <= consumers.length; ++i) r = Math.min(r, progress.get(i * STRIDE));
+        return r;
+    }
+    
+    @Override
+    public int getSize() {
+        return (int) Math.max(0, (cursor.get() & ~CLOSED) - taken.get());
+    }
+    
+    @Override
+    public boolean isClosed() {
+        return cursor.get() < 0;
+    }
+    
+    @Override
+    public void close() {
+        long curr;
+        while ((curr = cursor.get()) >= 0 && !cursor.compareAndSet(curr, curr | CLOSED)) ;
+        wakeConsumers();
+        
+        boolean interrupted = false;
+        for (val it : consumers) {
+            if (it == Thread.currentThread()) continue;
+            while (true) {
+                try {
+                    it.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+    
+    private void consume(final int index) {
+        val batch = new Object[batchSize];
+        val view = new BatchView(batch);
+        
+        int idle = 0;
+        while (true) {
+            // published before the claim, so that producers never overwrite the range being taken
+            val from = taken.get();
+            progress.set(index * STRIDE, from);
+            
+            val curr = cursor.get();
+            val end = curr & ~CLOSED;
+            if (from >= end) {
+                progress.set(index * STRIDE, Long.MAX_VALUE);
+                if (curr < 0) break;
+                idle = waitStrategy == EventRing.WaitStrategy.PARK && idle >= SPINS ? sleep(idle, curr) : idle(idle);
+                continue;
+            }
+            
+            val to = Math.min(end, from + batchSize);
+            if (!taken.compareAndSet(from, to)) continue;
+            idle = 0;
+            
+            int size = 0;
+            for (long seq = from; seq < to; ++seq) batch[size++] = take((int) seq & mask);
+            
+            // the slots are free once copied, so a full ring holds pending events only, and producers
+            // do not wait for the listeners
+            progress.set(index * STRIDE, Long.MAX_VALUE);
+            
+            view.size = size;
+            post(view);
+            Arrays.fill(batch, 0, size, null);
+        }
+    }
+    
+    @SuppressWarnings ("unchecked")
+    private void post(final BatchView view) {
+        try {
+            bus.getSnapshot(topic).postAll((Iterable<E>) (Iterable<?>) view, order);
+        } catch (Throwable e) {
+            if (errorHandler != null) {
+                errorHandler.accept(e);
+            } else {
+                val thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+    
+    // parks an idle consumer, twice as long as the last time, unless the cursor moved on meanwhile
+    private int sleep(final int count, final long seen) {
+        val nanos = Math.min(PARK_NANOS << Math.min(count - SPINS, 11), MAX_PARK_NANOS);
+        sleeping.incrementAndGet();
+        try {
+            if (cursor.get() == seen) LockSupport.parkNanos(this, nanos);
+        } finally {
+            sleeping.decrementAndGet();
+        }
+        return count + 1;
+    }
+    
+    // a consumer that is not parked keeps the permit, and only checks the ring once more
+    private void wakeConsumers() {
+        for (val it : consumers) LockSupport.unpark(it);
+    }
+    
+    // waits once according to the strategy, and returns the number of waits so far
+    private int idle(final int count) {
+        switch (waitStrategy) {
+            case YIELD:
+                Thread.yield();
+                break;
+            case PARK:
+                if (count < SPINS) break;
+                LockSupport.parkNanos(PARK_NANOS);
+                break;
+            default:
+                break;
+        }
+        return count + 1;
+    }
+    
+    // the slot of a coalescing ring, holding the latest event of its key until taken
+    private static final class Pending
+      extends AtomicReference<Object>
+    {
+        final Object key;
+        
+        Pending(final Object key, final Object event) {
+            super(event);
+            this.key = key;
+        }
+    }
+    
+    // the events of a batch, without copying them per batch
+    private static final class BatchView
+      extends AbstractList<Object>
+    {
+        private final Object[] items;
+        
+        int size;
+        
+        BatchView(final Object[] items) {
+            this.items = items;
+        }
+        
+        @Override
+        public Object get(final int index) {
+            return items[index];
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.llvg.eventlib.impl.bus;
+
+import lombok.val;
+import net.llvg.eventlib.api.bus.DispatchInterceptor;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.metrics.MetricsCollector;
+import org.jspecify.annotations.Nullable;
+
+// the metrics and the interceptors of a topic, resolved once per snapshot.
+// shared by the snapshot variants that call them, so that they all record and intercept the same way.
+final class Instrumentation {
+    final EventTopic<?> topic;
+    
+    final MetricsCollector.@Nullable TopicRecorder recorder;
+    
+    // recorder of each registration
+    private final MetricsCollector.ListenerRecorder @Nullable [] recorders;
+    
+    final DispatchInterceptor[] interceptors;
+    
+    Instrumentation(
+      final EventTopic<?> topic,
+      final MetricsCollector.@Nullable TopicRecorder recorder,
+      final RegistrationImpl<?, ?>[] regs,
+      final DispatchInterceptor[] interceptors
+    ) {
+        this.topic = topic;
+        this.recorder = recorder;
+        this.interceptors = interceptors;
+        
+        if (recorder != null) {
+            val recorders = new MetricsCollector.ListenerRecorder[regs.length];
+            for (int i = 0; i < regs.length; ++i) recorders[i] = recorder.listener(regs[i]);
+            this.recorders = recorders;
+        } else {
+            this.recorders = null;
+        }
+    }
+    
+    void beforePost(final Object event) {
+        if (recorder != null) recorder.posted();
+        for (val it : interceptors) it.beforePost(topic, event);
+    }
+    
+    void afterPost(final Object event, final @Nullable Throwable failure) {
+        for (int j = interceptors.length; j-- > 0; ) interceptors[j].afterPost(topic, event, failure);
+    }
+    
+    void failed(final EventError error) {
+        if (recorder != null) recorder.failed(error);
+    }
+    
+    // the registration at index i of the snapshot
+    void invoke(final RegistrationImpl<?, ?> reg, final int i, final Object event) {
+        if (!reg.isActive() || reg.skips(event)) return;
+        
+        for (val it : interceptors) it.beforeInvoke(topic, reg, event);
+        
+        @Nullable Throwable failure = null;
+        val start = System.nanoTime();
+        try {
+            reg.invoke(event);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            val nanos = System.nanoTime() - start;
+            if (recorders != null) recorders[i].record(nanos);
+            for (int j = interceptors.length; j-- > 0; ) interceptors[j].afterInvoke(topic, reg, event, nanos, failure);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.List;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventError;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+// a snapshot that times every listener, for the metrics and the interceptors of its topic.
+// only topics with either of them get it, so the other snapshots do not pay for a single check.
+final class InstrumentedSnapshotList<P, E>
+  extends SnapshotListImpl<P, E>
+{
+    private final Instrumentation hooks;
+    
+    InstrumentedSnapshotList(
+      final SnapshotFactory<P> factory,
+      final @Unmodifiable List<P> order,
+      final RegistrationImpl<P, ?>[] regs,
+      final int[] ranks,
+      final ListenerList<P> owner,
+      final long stamp,
+      final Instrumentation hooks
+    ) {
+        super(factory, order, regs, ranks, owner, stamp);
+        this.hooks = hooks;
+    }
+    
+    @Override
+    public E post(final E event) {
+        hooks.beforePost(event);
+        
+        @Nullable Throwable failure = null;
+        try {
+            for (int i = 0; i < regs.length; ++i) hooks.invoke(regs[i], i, event);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            hooks.afterPost(event, failure);
+        }
+        
+        return event;
+    }
+    
+    @Override
+    public @Nullable EventError postAndCatch(final E event) {
+        return dispatch(event, 0, regs.length);
+    }
+    
+    // listener-major like the plain snapshot, with every event posted around the whole batch
+    @Override
+    void postBatch(final Object[] batch) {
+        for (val event : batch) hooks.beforePost(event);
+        
+        @Nullable Throwable failure = null;
+        try {
+            for (int i = 0; i < regs.length; ++i) for (val event : batch) hooks.invoke(regs[i], i, event);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            for (val event : batch) hooks.afterPost(event, failure);
+        }
+    }
+    
+    // an asynchronous post starts with the first group, and ends with the last one or a failure
+    @Override
+    @Nullable EventError dispatch(final Object event, final int from, final int end) {
+        if (from == 0) hooks.beforePost(event);
+        
+        @Nullable EventError error = null;
+        int i = from;
+        try {
+            for (; i < end; ++i) hooks.invoke(regs[i], i, event);
+        } catch (Throwable e) {
+            error = new EventError(e, i, regs[i]);
+            hooks.failed(error);
+        }
+        
+        if (error != null || end == regs.length) hooks.afterPost(event, error == null ? null : error.getException());
+        return error;
+    }
+}
@@ -0,0 +1,374 @@
+package net.llvg.eventlib.impl.bus;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import lombok.val;
+import lombok.var;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.metrics.MetricsCollector;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+final class ListenerList<P>
+  extends SnapshotHolder<SnapshotListImpl<P, ?>>
+{
+    private static final Function<Object, ArrayList<RegistrationImpl<?, ?>>> newArrayList = $ -> new ArrayList<>();
+    
+    @SuppressWarnings ("rawtypes")
+    private static final AtomicLongFieldUpdater<ListenerList> GENERATION =
+      AtomicLongFieldUpdater.newUpdater(ListenerList.class, "generation");
+    
+    final EventTopic<?> topic;
+    
+    // the topic the metrics and the interceptors are given, the topic of a keyed subtopic
+    final EventTopic<?> reported;
+    
+    // creates the snapshots, and holds the epoch of the bus
+    final SnapshotFactory<P> factory;
+    
+    final @Unmodifiable List<ListenerList<P>> dependencies;
+    final ArrayList<ListenerList<P>> dependents = new ArrayList<>();
+    
+    final ConcurrentHashMap.KeySetView<RegistrationImpl<P, ?>, Boolean> registry = ConcurrentHashMap.newKeySet();
+    
+    transient final StampedLock lock = new StampedLock();
+    
+    // set once the bus dropped this list, after which it takes no registrations and no dependents
+    volatile boolean retired = false;
+    
+    // bumped after every change of the registry. the snapshots of the dependents record the sum of
+    // the generations of their dependencies, and notice on their next use that it moved on,
+    // so a change costs the same no matter how many lists depend on this one.
+    volatile long generation = 0;
+    
+    // records the metrics of the topic, null if the bus is not metered
+    final MetricsCollector.@Nullable TopicRecorder recorder;
+    
+    @SuppressWarnings ("unchecked")
+    ListenerList(
+      final EventTopic<?> topic,
+      final EventTopic<?> reported,
+      final @Unmodifiable HashSet<ListenerList<P>> dependencies,
+      final SnapshotFactory<P> factory,
+      final MetricsCollector.@Nullable TopicRecorder recorder
+    ) {
+        this.topic = topic;
+        this.reported = reported;
+        this.factory = factory;
+        this.dependencies = Util.asImmutableList(dependencies.toArray(new ListenerList[0]));
+        this.recorder = recorder;
+    }
+    
+    // adds this list to the dependents of its dependencies.
+    // false if one of them was retired meanwhile, in which case this list is retired too.
+    boolean link() {
+        val count = dependencies.size();
+        
+        var i = 0;
+        for (; i < count; ++i) {
+            val it = dependencies.get(i);
+            val stamp = it.lock.writeLock(); // exclusive lock
+            try {
+                if (it.retired) break;
+                it.dependents.add(this);
+            } finally {
+                it.lock.unlockWrite(stamp);
+            }
+        }
+        
+        if (i == count) return true;
+        
+        retired = true;
+        while (i-- > 0) dependencies.get(i).pruneDependents();
+        return false;
+    }
+    
+    // retires this list if no registration and no other list can observe it anymore.
+    // the caller drops it from the bus and prunes it from the dependents of its dependencies.
+    boolean tryRetire() {
+        val stamp = lock.writeLock(); // exclusive lock
+        try {
+            if (!registry.isEmpty() || !dependents.isEmpty()) return false;
+            
+            retired = true;
+            replace(null);
+            factory.advance();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    void pruneDependents() {
+        val stamp = lock.writeLock(); // exclusive lock
+        try {
+            dependents.removeIf(it -> it.retired);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    boolean contains(final RegistrationImpl<P, ?> registration) {
+        return registry.contains(registration);
+    }
+    
+    void modify(final RegistrationImpl<P, ?> registration, final boolean add) {
+        modifyAll(Collections.singletonList(registration), add);
+    }
+    
+    // all changes land in the own snapshot with one CAS, the dependents only see the new generation.
+    // only the registrations the registry actually gained or lost are patched, as decided under the lock,
+    // so racing modifications of the same registration never patch it twice.
+    // false if the list was retired, then the caller has to register on the list replacing it.
+    @CanIgnoreReturnValue
+    boolean modifyAll(final List<? extends RegistrationImpl<P, ?>> registrations, final boolean add) {
+        return locked(() -> {
+            val changed = new ArrayList<RegistrationImpl<P, ?>>(registrations.size());
+            for (val it : registrations) {
+                if (add ? registry.add(it) : registry.remove(it)) changed.add(it);
+            }
+            
+            if (changed.isEmpty()) return;
+            
+            patch(changed, add);
+            advance();
+        });
+    }
+    
+    // applies a whole batch at once. the own snapshot is dropped rather than patched,
+    // since one rebuild is cheaper than a copy per registration.
+    // false if the list was retired, then the caller has to register on the list replacing it.
+    boolean commit(final List<? extends RegistrationImpl<P, ?>> added, final List<? extends RegistrationImpl<P, ?>> removed) {
+        return locked(() -> {
+            var changed = false;
+            for (val it : removed) changed |= registry.remove(it);
+            for (val it : added) changed |= registry.add(it);
+            
+            if (changed) dropSnapshots();
+        });
+    }
+    
+    // drops the snapshot of this list and moves its generation on, so that this list and its dependents
+    // are rebuilt once used next
+    void invalidate() {
+        locked(this::dropSnapshots);
+    }
+    
+    private void dropSnapshots() {
+        replace(null);
+        advance();
+    }
+    
+    // the generation is bumped before the epoch, so a post that sees the new epoch sees the new generation too
+    private void advance() {
+        GENERATION.incrementAndGet(this);
+        factory.advance();
+    }
+    
+    // sum of the generations of the dependencies, read before their registries.
+    // generations only grow, so the sum stays the same exactly as long as none of them changed.
+    private long stamp() {
+        var r = 0L;
+        for (int i = 0, n = dependencies.size(); i < n; ++i) r += dependencies.get(i).generation;
+        return r;
+    }
+    
+    // the stamp is only summed again once the epoch of the bus moved on since the last check,
+    // so a post to a bus without registration changes reads a single counter for all dependencies.
+    private boolean isCurrent(final SnapshotListImpl<P, ?> snapshot) {
+        val epoch = factory.epoch;
+        if (snapshot.validated == epoch) return true;
+        if (snapshot.stamp != stamp()) return false;
+        
+        snapshot.validated = epoch;
+        return true;
+    }
+    
+    void reactivate(final RegistrationImpl<P, ?> registration) {
+        reactivateAll(Collections.singletonList(registration));
+    }
+    
+    // the flags of the registrations are already written, so the snapshots are refreshed once for all of them
+    void reactivateAll(final List<? extends RegistrationImpl<P, ?>> registrations) {
+        for (val reg : registrations) {
+            if (!registry.contains(reg)) continue;
+            
+            withDependents(() -> {
+                reactivate();
+                for (val it : dependents) it.reactivate();
+                factory.advance();
+            });
+            return;
+        }
+    }
+    
+    // runs the action while this list is read-locked, which excludes its rebuilds.
+    // false if the list was retired, in which case the action is not run.
+    @CanIgnoreReturnValue
+    private boolean locked(final Runnable action) {
+        val stamp = lock.readLock(); // shared lock
+        try {
+            if (retired) return false;
+            
+            action.run();
+            return true;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    // runs the action while this list and its dependents are read-locked, which excludes rebuilds.
+    // a toggle still refreshes the dependents eagerly, since a snapshot held by the caller has to notice it.
+    // false if the list was retired, in which case the action is not run.
+    @CanIgnoreReturnValue
+    private boolean withDependents(final Runnable action) {
+        val stamp = lock.readLock(); // shared lock
+        try {
+            if (retired) return false;
+            
+            val count = dependents.size();
+            
+            val stamps = new long[count];
+            var i = 0;
+            for (; i < count; ++i) {
+                stamps[i] = dependents.get(i).lock.readLock();
+            }
+            
+            try {
+                action.run();
+                return true;
+            } finally {
+                while (i-- > 0) dependents.get(i).lock.unlockRead(stamps[i]);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    // copy-on-write patch of the built snapshot, so that a change does not cost a full rebuild.
+    // modifications only share the lock, so concurrent patches are serialized by the CAS.
+    // a removal always installs a new instance, which makes a racing insertion of the same
+    // registration retry and notice that it is gone from the registry.
+    private void patch(final List<RegistrationImpl<P, ?>> registrations, final boolean add) {
+        SnapshotListImpl<P, ?> curr;
+        @Nullable SnapshotListImpl<P, ?> next;
+        do {
+            if ((curr = getSnapshot()) == null) return;
+            
+            next = curr;
+            for (val it : registrations) {
+                if (add) {
+                    if (!registry.contains(it)) continue;
+                    if ((next = next.inserted(it)) == null) break;
+                } else {
+                    next = next.removed(it);
+                }
+            }
+            
+            if (next == curr) return;
+        } while (!replace(curr, next));
+    }
+    
+    // the flags are written before, so a racing patch either sees them or loses the CAS and retries
+    private void reactivate() {
+        SnapshotListImpl<P, ?> curr;
+        do {
+            if ((curr = getSnapshot()) == null) return;
+        } while (!replace(curr, curr.reactivated()));
+    }
+    
+    // every replaced snapshot is marked, whatever replaced it, since a patched copy may be held as well.
+    // it is marked before the CAS, which only fails if another change replaced it anyway
+    private boolean replace(final SnapshotListImpl<P, ?> curr, final @Nullable SnapshotListImpl<P, ?> next) {
+        curr.replaced = true;
+        return casSnapshot(curr, next);
+    }
+    
+    // installing a snapshot into an empty holder only happens under the write lock, which patches exclude
+    private void replace(final @Nullable SnapshotListImpl<P, ?> next) {
+        SnapshotListImpl<P, ?> curr;
+        do {
+            if ((curr = getSnapshot()) == null) {
+                setSnapshot(next);
+                return;
+            }
+        } while (!replace(curr, next));
+    }
+    
+    @SuppressWarnings ("unchecked")
+    // a phase graph change replaces the sorted phase list, and snapshots sorted by an older one
+    // are reordered lazily here, so that only the lists that are still posted to pay for it.
+    // a change of a dependency moves the stamp on, and is picked up here the same way.
+    // the phase order is read under the lock, which modifications of the phases never wait for.
+    SnapshotListImpl<P, ?> getSorted() {
+        SnapshotListImpl<P, ?> r;
+        if ((r = getSnapshot()) == null || r.order != factory.phases.getSorted() || !isCurrent(r)) {
+            val stamp = lock.writeLock(); // exclusive
+            try {
+                val phases = factory.phases.getSorted();
+                val epoch = factory.epoch;
+                val current = stamp();
+                
+                if ((r = getSnapshot()) != null && r.stamp == current) {
+                    if (r.order != phases) replace(r = r.reordered(phases));
+                } else {
+                    final long start = recorder == null ? 0 : System.nanoTime();
+                    val phase2actions = new HashMap<P, ArrayList<RegistrationImpl<?, ?>>>(phases.size());
+                    var size = 0;
+                    
+                    // the registries of the dependencies may change meanwhile, so they are counted as they are read
+                    for (val reg : registry) {
+                        phase2actions.computeIfAbsent(reg.phase, newArrayList).add(reg);
+                        ++size;
+                    }
+                    
+                    for (val it : dependencies) {
+                        for (val reg : it.registry) {
+                            phase2actions.computeIfAbsent(reg.phase, newArrayList).add(reg);
+                            ++size;
+                        }
+                    }
+                    
+                    var b = (RegistrationImpl<P, ?>[]) new RegistrationImpl[size];
+                    var ranks = new int[size];
+                    
+                    int i = 0;
+                    for (int rank = 0, count = phases.size(); rank < count; ++rank) {
+                        val list = phase2actions.get(phases.get(rank));
+                        if (list != null && !list.isEmpty()) {
+                            val from = i;
+                            for (int j = 0, n = list.size(); j < n; ++j) b[i++] = (RegistrationImpl<P, ?>) list.get(j);
+                            Arrays.fill(ranks, from, i, rank);
+                        }
+                    }
+                    
+                    // a registration on a dependency may land meanwhile, in a phase added after the order was read.
+                    // it is left out, since it moved the generation of the dependency on, and the next use rebuilds.
+                    if (i != size) {
+                        b = Arrays.copyOf(b, i);
+                        ranks = Arrays.copyOf(ranks, i);
+                    }
+                    
+                    r = factory.create(phases, b, ranks, this, current);
+                    r.validated = epoch;
+                    replace(r);
+                    if (recorder != null) recorder.rebuilt(System.nanoTime() - start);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        return r;
+    }
+}
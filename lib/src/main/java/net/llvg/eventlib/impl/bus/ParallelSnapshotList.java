@@ -0,0 +1,213 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+// a snapshot with at least one PARALLEL or VIRTUAL phase group.
+// a PARALLEL group is forked over the parallel pool, a VIRTUAL one gets a virtual thread per listener,
+// and either is joined before the next group starts.
+// the other groups run on the posting thread like in the plain snapshot.
+// the instrumentation of the topic, if any, wraps the post on the posting thread,
+// and every listener on the thread it runs on.
+final class ParallelSnapshotList<P, E>
+  extends SnapshotListImpl<P, E>
+{
+    // start of every phase group, followed by the size
+    final int[] bounds;
+    
+    // delivery of every phase group
+    final PhaseManager.Delivery[] deliveries;
+    
+    // null if the topic has neither metrics nor interceptors
+    private final @Nullable Instrumentation hooks;
+    
+    ParallelSnapshotList(
+      final SnapshotFactory<P> factory,
+      final @Unmodifiable List<P> order,
+      final RegistrationImpl<P, ?>[] regs,
+      final int[] ranks,
+      final ListenerList<P> owner,
+      final long stamp,
+      final int[] bounds,
+      final PhaseManager.Delivery[] deliveries,
+      final @Nullable Instrumentation hooks
+    ) {
+        super(factory, order, regs, ranks, owner, stamp);
+        this.bounds = bounds;
+        this.deliveries = deliveries;
+        this.hooks = hooks;
+    }
+    
+    @Override
+    public E post(final E event) {
+        if (hooks != null) hooks.beforePost(event);
+        
+        @Nullable Throwable failure = null;
+        try {
+            for (int g = 0; g < deliveries.length; ++g) {
+                val error = run(g, event);
+                if (error != null) throw Util.sneakyThrow(error.getException());
+            }
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (hooks != null) hooks.afterPost(event, failure);
+        }
+        
+        return event;
+    }
+    
+    @Override
+    public @Nullable EventError postAndCatch(final E event) {
+        if (hooks != null) hooks.beforePost(event);
+        
+        @Nullable EventError error = null;
+        for (int g = 0; g < deliveries.length && error == null; ++g) error = run(g, event);
+        
+        if (hooks != null) after(hooks, event, error);
+        return error;
+    }
+    
+    @Override
+    void postBatch(final Object[] batch) {
+        if (hooks != null) for (val event : batch) hooks.beforePost(event);
+        
+        @Nullable Throwable failure = null;
+        try {
+            for (int g = 0; g < deliveries.length; ++g) {
+                if (deliveries[g] != PhaseManager.Delivery.SEQUENTIAL) {
+                    val error = fork(g, batch);
+                    if (error != null) throw Util.sneakyThrow(error.getException());
+                } else {
+                    for (int i = bounds[g], end = bounds[g + 1]; i < end; ++i) invokeAll(i, batch);
+                }
+            }
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (hooks != null) for (val event : batch) hooks.afterPost(event, failure);
+        }
+    }
+    
+    // an asynchronous post starts with the first group, and ends with the last one or a failure
+    @Override
+    @Nullable EventError dispatch(final Object event, final int from, final int end) {
+        if (hooks != null && from == 0) hooks.beforePost(event);
+        
+        val g = Arrays.binarySearch(bounds, from);
+        val error = g >= 0 && g < deliveries.length && deliveries[g] != PhaseManager.Delivery.SEQUENTIAL
+          ? fork(g, new Object[]{ event })
+          : sequential(event, from, end);
+        
+        if (hooks != null && (error != null || end == regs.length)) after(hooks, event, error);
+        return error;
+    }
+    
+    private static void after(final Instrumentation hooks, final Object event, final @Nullable EventError error) {
+        if (error != null) hooks.failed(error);
+        hooks.afterPost(event, error == null ? null : error.getException());
+    }
+    
+    private @Nullable EventError run(final int g, final Object event) {
+        return deliveries[g] != PhaseManager.Delivery.SEQUENTIAL
+          ? fork(g, new Object[]{ event })
+          : sequential(event, bounds[g], bounds[g + 1]);
+    }
+    
+    private @Nullable EventError sequential(final Object event, final int from, final int end) {
+        int i = from;
+        
+        try {
+            for (; i < end; ++i) {
+                if (hooks != null) {
+                    hooks.invoke(regs[i], i, event);
+                } else {
+                    regs[i].invoke(event);
+                }
+            }
+        } catch (Throwable e) {
+            return new EventError(e, i, regs[i]);
+        }
+        
+        return null;
+    }
+    
+    // runs the registration at index i for every event of the batch, on the calling thread
+    void invokeAll(final int i, final Object[] batch) {
+        val reg = regs[i];
+        if (hooks == null) {
+            reg.invokeAll(batch);
+        } else {
+            for (val event : batch) hooks.invoke(reg, i, event);
+        }
+    }
+    
+    // ForkJoinPool.invoke runs the task inline on a worker of the pool,
+    // and otherwise blocks the posting thread until the whole group completed.
+    // a VIRTUAL group blocks the posting thread until all of its virtual threads ended.
+    private @Nullable EventError fork(final int g, final Object[] batch) {
+        val from = bounds[g];
+        val end = bounds[g + 1];
+        val failure = new Failure();
+        
+        if (deliveries[g] == PhaseManager.Delivery.VIRTUAL) {
+            VirtualGroup.invoke(this, batch, from, end, failure);
+        } else {
+            factory.parallelPool.invoke(new Group(this, batch, from, end, failure));
+        }
+        
+        val e = failure.exception;
+        return e == null ? null : new EventError(e, failure.index, regs[failure.index]);
+    }
+    
+    // the failure with the lowest index, so that the report does not depend on scheduling
+    static final class Failure {
+        int index = Integer.MAX_VALUE;
+        
+        @Nullable Throwable exception;
+        
+        synchronized void record(final int index, final Throwable exception) {
+            if (index < this.index) {
+                this.index = index;
+                this.exception = exception;
+            }
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Group
+      extends RecursiveAction
+    {
+        private static final long serialVersionUID = 0L;
+        
+        final transient ParallelSnapshotList<?, ?> snapshot;
+        final transient Object[] batch;
+        final int from;
+        final int end;
+        final transient Failure failure;
+        
+        @Override
+        protected void compute() {
+            if (end - from == 1) {
+                try {
+                    snapshot.invokeAll(from, batch);
+                } catch (Throwable e) {
+                    failure.record(from, e);
+                }
+            } else {
+                val mid = (from + end) >>> 1;
+                invokeAll(new Group(snapshot, batch, from, mid, failure), new Group(snapshot, batch, mid, end, failure));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.Unmodifiable;
+
+@RequiredArgsConstructor
+@ToString
+final class RegistrationGroupImpl<P>
+  implements EventBus.RegistrationGroup<P>
+{
+    @ToString.Exclude
+    final EventBusImpl<P> bus;
+    
+    final List<RegistrationImpl<P, ?>> registrations;
+    
+    @Override
+    @SuppressWarnings ("unchecked")
+    public @Unmodifiable List<EventBus.Registration<P>> getRegistrations() {
+        return Util.asImmutableList(registrations.toArray(new EventBus.Registration[0]));
+    }
+    
+    @Override
+    public void unregister() {
+        bus.unregisterAll(registrations);
+    }
+    
+    // the flags are written first, then every list refreshes its snapshots once
+    @Override
+    public void setActive(final boolean value) {
+        val batches = new LinkedHashMap<ListenerList<P>, List<RegistrationImpl<P, ?>>>();
+        for (val reg : registrations) {
+            if (!reg.toggle(value)) continue;
+            
+            val list = reg.list;
+            if (list != null) batches.computeIfAbsent(list, $ -> new ArrayList<>()).add(reg);
+        }
+        
+        batches.forEach(ListenerList::reactivateAll);
+    }
+}
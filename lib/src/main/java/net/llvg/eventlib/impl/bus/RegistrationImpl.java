@@ -0,0 +1,92 @@
+package net.llvg.eventlib.impl.bus;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import net.llvg.eventlib.api.bus.Cancellable;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventListener;
+import org.jspecify.annotations.Nullable;
+
+@ToString
+final class RegistrationImpl<P, E>
+  extends ActiveHolder
+  implements EventBus.Registration<P>
+{
+    transient volatile @Nullable ListenerList<P> list;
+    
+    @Getter
+    final P phase;
+    
+    // the wrapper of a weak registration, which the snapshots call
+    final EventListener<? super E> listener;
+    
+    // read once, so that the snapshots can precompute which listeners a cancellation skips
+    final boolean receivesCancelled;
+    
+    RegistrationImpl(final P phase, final EventListener<? super E> listener) {
+        this(phase, listener, listener.receivesCancelled());
+    }
+    
+    RegistrationImpl(final P phase, final EventListener<? super E> listener, final boolean receivesCancelled) {
+        this.phase = phase;
+        this.listener = listener;
+        this.receivesCancelled = receivesCancelled;
+    }
+    
+    // the registered listener rather than its wrapper, the placeholder once a weak one was collected
+    @Override
+    public EventListener<?> getListener() {
+        if (!(listener instanceof WeakListener)) return listener;
+        
+        final @Nullable EventListener<?> referent = ((WeakListener<?>) listener).get();
+        return referent != null ? referent : WeakListener.COLLECTED;
+    }
+    
+    @Override
+    public boolean isRegistered() {
+        val list = this.list;
+        return list != null && list.contains(this);
+    }
+    
+    @Override
+    public void unregister() {
+        val list = this.list;
+        if (list != null) {
+            list.modify(this, false);
+            this.list = null;
+        }
+    }
+    
+    // the snapshots only dispatch to the registrations that were active when they were built
+    @Override
+    public void setActive(final boolean value) {
+        if (!toggle(value)) return;
+        
+        val list = this.list;
+        if (list != null) list.reactivate(this);
+    }
+    
+    // writes the flag only, the caller refreshes the snapshots. false if it was unchanged
+    boolean toggle(final boolean value) {
+        if (isActive() == value) return false;
+        super.setActive(value);
+        return true;
+    }
+    
+    @SuppressWarnings ("unchecked")
+    void invoke(final Object event) {
+        if (isActive() && !skips(event)) listener.invoke((E) event);
+    }
+    
+    // the flag is read once for the whole batch
+    @SuppressWarnings ("unchecked")
+    void invokeAll(final Object[] batch) {
+        if (isActive()) for (val it : batch) if (!skips(it)) listener.invoke((E) it);
+    }
+    
+    // whether the event was cancelled before it reached this listener
+    boolean skips(final Object event) {
+        return !receivesCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+}
@@ -0,0 +1,140 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.ForkJoinPool;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.var;
+import net.llvg.eventlib.api.bus.DispatchInterceptor;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+// picks the snapshot variant matching the configuration of a bus
+@RequiredArgsConstructor
+final class SnapshotFactory<P> {
+    final PhaseManager<P> phases;
+    
+    final ForkJoinPool parallelPool;
+    
+    // stability window in nanoseconds before a snapshot is compiled, negative if disabled
+    final long compileAfter;
+    
+    @SuppressWarnings ("rawtypes")
+    private static final AtomicLongFieldUpdater<SnapshotFactory> EPOCH =
+      AtomicLongFieldUpdater.newUpdater(SnapshotFactory.class, "epoch");
+    
+    // bumped after every change on the bus that can affect a snapshot: registry changes, after the generation
+    // of the changed list, toggles, retired lists and phase changes. the routes of post(E) are only
+    // validated again once it moved on
+    volatile long epoch = 0;
+    
+    private static final DispatchInterceptor[] NO_INTERCEPTORS = new DispatchInterceptor[0];
+    
+    // interceptors of every topic. both are replaced as a whole, under the lock of this factory
+    volatile DispatchInterceptor[] interceptors = NO_INTERCEPTORS;
+    
+    // interceptors by topic, which cover its subtopics too
+    final ConcurrentHashMap<EventTopic<?>, DispatchInterceptor[]> topic2interceptors = new ConcurrentHashMap<>();
+    
+    void advance() {
+        EPOCH.incrementAndGet(this);
+    }
+    
+    SnapshotListImpl<P, ?> create(
+      final @Unmodifiable List<P> order,
+      final RegistrationImpl<P, ?>[] regs,
+      final int[] ranks,
+      final ListenerList<P> owner,
+      final long stamp
+    ) {
+        val size = regs.length;
+        
+        // start of every phase group, followed by the size
+        val bounds = new int[size + 1];
+        val deliveries = new PhaseManager.Delivery[size];
+        var groups = 0;
+        var any = false;
+        
+        for (int i = 0; i < size; i = bounds[++groups]) {
+            var end = i + 1;
+            while (end < size && ranks[end] == ranks[i]) ++end;
+            
+            bounds[groups] = i;
+            bounds[groups + 1] = end;
+            
+            // a single listener gains nothing from running concurrently
+            val delivery = end - i > 1 ? effective(phases.getDelivery(order.get(ranks[i]))) : PhaseManager.Delivery.SEQUENTIAL;
+            deliveries[groups] = delivery;
+            if (delivery != PhaseManager.Delivery.SEQUENTIAL) any = true;
+        }
+        
+        val interceptors = interceptorsOf(owner);
+        
+        if (!any) {
+            // a compiled loop cannot be instrumented, so instrumentation takes precedence over compilation
+            if (owner.recorder != null || interceptors.length != 0) {
+                return new InstrumentedSnapshotList<>(
+                  this, order, regs, ranks, owner, stamp,
+                  new Instrumentation(owner.reported, owner.recorder, regs, interceptors)
+                );
+            }
+            
+            return compileAfter < 0 || !DispatcherCompiler.isSupported()
+              ? new SnapshotListImpl<>(this, order, regs, ranks, owner, stamp)
+              : new CompiledSnapshotList<>(this, order, regs, ranks, owner, stamp);
+        }
+        
+        return new ParallelSnapshotList<>(
+          this,
+          order,
+          regs,
+          ranks,
+          owner,
+          stamp,
+          Arrays.copyOf(bounds, groups + 1),
+          Arrays.copyOf(deliveries, groups),
+          owner.recorder != null || interceptors.length != 0 ? new Instrumentation(owner.reported, owner.recorder, regs, interceptors) : null
+        );
+    }
+    
+    // virtual threads only exist on Java 21+, before that VIRTUAL phases run on the posting thread
+    private static PhaseManager.Delivery effective(final PhaseManager.Delivery delivery) {
+        return delivery == PhaseManager.Delivery.VIRTUAL && !VirtualGroup.isSupported() ? PhaseManager.Delivery.SEQUENTIAL : delivery;
+    }
+    
+    // the interceptors of the bus, followed by those of the topic of the list and of its supertopics
+    private DispatchInterceptor[] interceptorsOf(final ListenerList<P> list) {
+        var r = interceptors;
+        if (topic2interceptors.isEmpty()) return r;
+        
+        r = concat(r, topic2interceptors.get(list.topic));
+        for (val it : list.dependencies) r = concat(r, topic2interceptors.get(it.topic));
+        return r;
+    }
+    
+    static DispatchInterceptor[] concat(final DispatchInterceptor[] a, final DispatchInterceptor @Nullable [] b) {
+        if (b == null || b.length == 0) return a;
+        if (a.length == 0) return b;
+        
+        val r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+    
+    // without the last occurrence of the interceptor, the same array if it is absent
+    static DispatchInterceptor[] without(final DispatchInterceptor[] a, final DispatchInterceptor interceptor) {
+        var i = a.length;
+        while (i-- > 0) if (a[i] == interceptor) break;
+        if (i < 0) return a;
+        
+        val r = new DispatchInterceptor[a.length - 1];
+        System.arraycopy(a, 0, r, 0, i);
+        System.arraycopy(a, i + 1, r, i, a.length - i - 1);
+        return r;
+    }
+}
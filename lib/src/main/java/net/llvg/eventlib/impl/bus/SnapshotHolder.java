@@ -0,0 +1,26 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import org.jspecify.annotations.Nullable;
+
+// holder of a lazily built snapshot.
+// this is the Java 8 baseline, the multi-release overlay for 17+ uses acquire/release VarHandle accesses instead.
+abstract class SnapshotHolder<S> {
+    @SuppressWarnings ("rawtypes")
+    private static final AtomicReferenceFieldUpdater<SnapshotHolder, Object> SNAPSHOT =
+      AtomicReferenceFieldUpdater.newUpdater(SnapshotHolder.class, Object.class, "snapshot");
+    
+    private transient volatile @Nullable S snapshot = null;
+    
+    final @Nullable S getSnapshot() {
+        return snapshot;
+    }
+    
+    final void setSnapshot(final @Nullable S value) {
+        snapshot = value;
+    }
+    
+    final boolean casSnapshot(final S expect, final @Nullable S update) {
+        return SNAPSHOT.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,337 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.val;
+import lombok.var;
+import net.llvg.eventlib.api.bus.Cancellable;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventError;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+class SnapshotListImpl<P, E>
+  extends AbstractList<EventBus.Registration<P>>
+  implements EventBus.SnapshotList<P, E>
+{
+    // creates the patched copies, so that they keep the variant of the bus
+    final SnapshotFactory<P> factory;
+    
+    // the phase order this snapshot is sorted by
+    final @Unmodifiable List<P> order;
+    
+    final RegistrationImpl<P, ?>[] regs;
+    
+    // position of the phase of each registration in the order, ascending
+    final int[] ranks;
+    
+    // the list holding this snapshot, whose instrumentation is carried over to the patched copies
+    final ListenerList<P> owner;
+    
+    // the sum of the generations of the dependencies of the owner when this snapshot was built
+    final long stamp;
+    
+    // the epoch of the bus at which the stamp was last found current, none yet for a patched copy
+    volatile long validated = -1;
+    
+    // listeners of the registrations that were active when this snapshot was created.
+    // a toggle replaces the snapshot, so the plain dispatch paths need no flag checks.
+    final EventListener<Object>[] live;
+    
+    // for every position in live, the first listener at or after it that receives cancelled events,
+    // followed by the size. a cancelled event jumps straight to it, so the plain loop checks nothing else.
+    final int[] nextReceiver;
+    
+    // set once this snapshot was replaced. a toggle only refreshes the current snapshot,
+    // so one held by the caller falls back to checking the flags from then on.
+    volatile boolean replaced;
+    
+    @SuppressWarnings ("unchecked")
+    SnapshotListImpl(
+      final SnapshotFactory<P> factory,
+      final @Unmodifiable List<P> order,
+      final RegistrationImpl<P, ?>[] regs,
+      final int[] ranks,
+      final ListenerList<P> owner,
+      final long stamp
+    ) {
+        this.factory = factory;
+        this.order = order;
+        this.regs = regs;
+        this.ranks = ranks;
+        this.owner = owner;
+        this.stamp = stamp;
+        
+        var count = 0;
+        for (val reg : regs) if (reg.isActive()) ++count;
+        
+        val live = new EventListener[count];
+        val next = new int[count + 1];
+        if (count != 0) for (int i = 0, j = 0; j < count; ++i) {
+            if (regs[i].isActive()) {
+                next[j] = regs[i].receivesCancelled ? j : -1;
+                live[j++] = regs[i].listener;
+            }
+        }
+        
+        next[count] = count;
+        for (int j = count; j-- > 0; ) if (next[j] < 0) next[j] = next[j + 1];
+        
+        this.live = live;
+        this.nextReceiver = next;
+    }
+    
+    // null if the phase is unknown to the order, which calls for a rebuild
+    final @Nullable SnapshotListImpl<P, ?> inserted(final RegistrationImpl<P, ?> registration) {
+        val rank = order.indexOf(registration.phase);
+        if (rank < 0) return null;
+        
+        // after the last registration of the same phase
+        var lo = 0;
+        var hi = ranks.length;
+        while (lo < hi) {
+            val mid = (lo + hi) >>> 1;
+            if (ranks[mid] <= rank) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        
+        val size = regs.length;
+        
+        @SuppressWarnings ("unchecked")
+        final RegistrationImpl<P, ?>[] b = new RegistrationImpl[size + 1];
+        System.arraycopy(regs, 0, b, 0, lo);
+        System.arraycopy(regs, lo, b, lo + 1, size - lo);
+        b[lo] = registration;
+        
+        val r = new int[size + 1];
+        System.arraycopy(ranks, 0, r, 0, lo);
+        System.arraycopy(ranks, lo, r, lo + 1, size - lo);
+        r[lo] = rank;
+        
+        return factory.create(order, b, r, owner, stamp);
+    }
+    
+    // same registrations, sorted by a new phase order. the registrations of a phase form one run,
+    // so only whole runs are moved, and nothing is regrouped from the registries.
+    // if the phases of this snapshot kept their relative order, the registrations are not even copied.
+    final SnapshotListImpl<P, ?> reordered(final @Unmodifiable List<P> order) {
+        val size = regs.length;
+        
+        // new rank and start of every run, packed so that sorting them orders the runs by rank
+        val runs = new long[size];
+        val r = new int[size];
+        var count = 0;
+        var sorted = true;
+        
+        for (int i = 0; i < size; ++i) {
+            if (i != 0 && ranks[i] == ranks[i - 1]) {
+                r[i] = r[i - 1];
+                continue;
+            }
+            
+            val rank = order.indexOf(regs[i].phase);
+            Util.check(rank >= 0, "Phase '{}' is missing from the phase order.", regs[i].phase);
+            
+            if (i != 0 && rank < r[i - 1]) sorted = false;
+            r[i] = rank;
+            runs[count++] = (long) rank << 32 | i;
+        }
+        
+        if (sorted) return factory.create(order, regs, r, owner, stamp);
+        
+        Arrays.sort(runs, 0, count);
+        
+        @SuppressWarnings ("unchecked")
+        final RegistrationImpl<P, ?>[] b = new RegistrationImpl[size];
+        val nr = new int[size];
+        
+        var j = 0;
+        for (int k = 0; k < count; ++k) {
+            val from = (int) runs[k];
+            var end = from + 1;
+            while (end < size && ranks[end] == ranks[from]) ++end;
+            
+            System.arraycopy(regs, from, b, j, end - from);
+            Arrays.fill(nr, j, j + end - from, r[from]);
+            j += end - from;
+        }
+        
+        return factory.create(order, b, nr, owner, stamp);
+    }
+    
+    // same registrations, with the active flags read again
+    final SnapshotListImpl<P, ?> reactivated() {
+        return factory.create(order, regs, ranks, owner, stamp);
+    }
+    
+    final SnapshotListImpl<P, ?> removed(final RegistrationImpl<P, ?> registration) {
+        val size = regs.length;
+        
+        var i = 0;
+        while (i < size && regs[i] != registration) ++i;
+        if (i == size) return factory.create(order, regs, ranks, owner, stamp);
+        
+        @SuppressWarnings ("unchecked")
+        final RegistrationImpl<P, ?>[] b = new RegistrationImpl[size - 1];
+        System.arraycopy(regs, 0, b, 0, i);
+        System.arraycopy(regs, i + 1, b, i, size - i - 1);
+        
+        val r = new int[size - 1];
+        System.arraycopy(ranks, 0, r, 0, i);
+        System.arraycopy(ranks, i + 1, r, i, size - i - 1);
+        
+        return factory.create(order, b, r, owner, stamp);
+    }
+    
+    @Override
+    public final EventBus.Registration<P> get(final int index) {
+        return regs[index];
+    }
+    
+    @Override
+    public final int size() {
+        return regs.length;
+    }
+    
+    @Override
+    public E post(final E event) {
+        if (replaced) {
+            for (val reg : regs) reg.invoke(event);
+        } else if (event instanceof Cancellable) {
+            postCancellable((Cancellable) event);
+        } else {
+            for (val it : live) it.invoke(event);
+        }
+        
+        return event;
+    }
+    
+    // the flag is the only check per listener, a cancellation jumps over the listeners it skips
+    private void postCancellable(final Cancellable event) {
+        val live = this.live;
+        val next = nextReceiver;
+        
+        var i = event.isCancelled() ? next[0] : 0;
+        while (i < live.length) {
+            live[i].invoke(event);
+            i = event.isCancelled() ? next[i + 1] : i + 1;
+        }
+    }
+    
+    @Override
+    public @Nullable EventError postAndCatch(E event) {
+        int i = 0;
+        
+        try {
+            for (; i < regs.length; ++i) {
+                regs[i].invoke(event);
+            }
+        } catch (Throwable e) {
+            return new EventError(e, i, regs[i]);
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public final CompletableFuture<E> postAsync(final E event, final Executor executor) {
+        Util.argNotNull(executor, "executor");
+        
+        val result = new CompletableFuture<E>();
+        if (regs.length == 0) {
+            result.complete(event);
+        } else {
+            new AsyncPost<>(this, event, executor, result).submit();
+        }
+        
+        return result;
+    }
+    
+    @Override
+    public final void postAll(final Iterable<? extends E> events, final EventBus.BatchOrder order) {
+        Util.argNotNull(events, "events");
+        Util.argNotNull(order, "order");
+        
+        if (regs.length == 0) return;
+        
+        if (order == EventBus.BatchOrder.EVENT_MAJOR) {
+            for (val it : events) post(it);
+        } else {
+            // the batch is walked once per listener, so a one-shot iterable is copied first
+            postBatch(events instanceof Collection ? ((Collection<?>) events).toArray() : copy(events));
+        }
+    }
+    
+    private static Object[] copy(final Iterable<?> events) {
+        val builder = new ArrayList<Object>();
+        for (val it : events) builder.add(it);
+        return builder.toArray();
+    }
+    
+    // listener-major: every registration handles the whole batch before the next one
+    void postBatch(final Object[] batch) {
+        if (replaced || anyCancellable(batch)) {
+            // the registrations check their flags and the cancellation of every event
+            for (val reg : regs) reg.invokeAll(batch);
+        } else {
+            for (val it : live) for (val event : batch) it.invoke(event);
+        }
+    }
+    
+    private static boolean anyCancellable(final Object[] batch) {
+        for (val it : batch) if (it instanceof Cancellable) return true;
+        return false;
+    }
+    
+    // end of the phase group starting at from
+    final int groupEnd(final int from) {
+        val rank = ranks[from];
+        var i = from + 1;
+        while (i < ranks.length && ranks[i] == rank) ++i;
+        return i;
+    }
+    
+    // runs the registrations in [from, end), which is one phase group
+    @Nullable EventError dispatch(final Object event, final int from, final int end) {
+        int i = from;
+        
+        try {
+            for (; i < end; ++i) regs[i].invoke(event);
+        } catch (Throwable e) {
+            return new EventError(e, i, regs[i]);
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public final Object[] toArray() {
+        return Arrays.copyOf(regs, regs.length);
+    }
+    
+    @SuppressWarnings ("all")
+    @Override
+    public final <T extends @Nullable Object> T[] toArray(final T[] a) {
+        if (a.length < regs.length) {
+            return Arrays.copyOf(regs, regs.length, (Class<? extends T[]>) a.getClass());
+        }
+        
+        System.arraycopy(regs, 0, a, 0, regs.length);
+        
+        if (a.length > regs.length) {
+            a[regs.length] = null;
+        }
+        
+        return a;
+    }
+}
@@ -0,0 +1,34 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import org.jspecify.annotations.Nullable;
+
+// resolves the lookup a @Subscribe method is linked into a lambda with.
+// this is the Java 8 baseline, which can only spin the lambda next to this class, so it must be able
+// to see and call the method. the multi-release overlay for 17+ spins it in the class of the method instead.
+final class SubscriberLookup {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    
+    private SubscriberLookup() { }
+    
+    // null if no lambda can call the method, which is then called through its method handle
+    static MethodHandles.@Nullable Lookup of(final Method method) {
+        return Modifier.isPublic(method.getModifiers()) &&
+          isVisible(method.getDeclaringClass()) &&
+          isVisible(method.getParameterTypes()[0])
+          ? lookup
+          : null;
+    }
+    
+    private static boolean isVisible(final Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) return false;
+        
+        try {
+            return Class.forName(type.getName(), false, SubscriberLookup.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
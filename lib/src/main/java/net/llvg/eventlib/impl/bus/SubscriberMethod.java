@@ -0,0 +1,137 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import lombok.ToString;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.bus.Subscribe;
+import net.llvg.eventlib.impl.Util;
+import org.jetbrains.annotations.Unmodifiable;
+import org.jspecify.annotations.Nullable;
+
+// a @Subscribe method, resolved once per class
+@ToString (onlyExplicitlyIncluded = true)
+final class SubscriberMethod {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    
+    private static final MethodType samType = MethodType.methodType(void.class, Object.class);
+    
+    private static final ClassValue<@Unmodifiable List<SubscriberMethod>> cache = new ClassValue<@Unmodifiable List<SubscriberMethod>>() {
+        @Override
+        protected @Unmodifiable List<SubscriberMethod> computeValue(final Class<?> type) {
+            return scan(type);
+        }
+    };
+    
+    @ToString.Include
+    final Method method;
+    
+    final EventTopic<Object> topic;
+    
+    final String phase;
+    
+    final boolean receiveCancelled;
+    
+    // (Target)EventListener, spun by LambdaMetafactory
+    private final @Nullable MethodHandle factory;
+    
+    // (Target, Object)void, for the methods a lambda cannot call
+    private final @Nullable MethodHandle handle;
+    
+    @SuppressWarnings ("unchecked")
+    private SubscriberMethod(final Method method, final Subscribe annotation) throws ReflectiveOperationException {
+        val event = method.getParameterTypes()[0];
+        
+        this.method = method;
+        this.topic = EventTopic.forClass((Class<Object>) event);
+        this.phase = annotation.phase();
+        this.receiveCancelled = annotation.receiveCancelled();
+        
+        val linker = SubscriberLookup.of(method);
+        val factory = linker == null ? null : link(linker, method, event);
+        if (factory != null) {
+            this.factory = factory;
+            this.handle = null;
+        } else {
+            method.setAccessible(true);
+            this.factory = null;
+            this.handle = lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+    }
+    
+    // null if the lambda cannot be spun with the lookup
+    private static @Nullable MethodHandle link(final MethodHandles.Lookup linker, final Method method, final Class<?> event) {
+        try {
+            return LambdaMetafactory.metafactory(
+              linker,
+              "invoke",
+              MethodType.methodType(EventListener.class, method.getDeclaringClass()),
+              samType,
+              linker.unreflect(method),
+              MethodType.methodType(void.class, event)
+            ).getTarget();
+        } catch (IllegalAccessException | LambdaConversionException e) {
+            return null;
+        }
+    }
+    
+    static @Unmodifiable List<SubscriberMethod> of(final Class<?> type) {
+        return cache.get(type);
+    }
+    
+    private static @Unmodifiable List<SubscriberMethod> scan(final Class<?> type) {
+        val builder = new ArrayList<SubscriberMethod>();
+        val seen = new HashSet<List<Object>>();
+        
+        for (Class<?> it = type; it != null && it != Object.class; it = it.getSuperclass()) {
+            for (val method : it.getDeclaredMethods()) {
+                val annotation = method.getAnnotation(Subscribe.class);
+                if (annotation == null || method.isBridge() || method.isSynthetic()) continue;
+                
+                Util.check(!Modifier.isStatic(method.getModifiers()), "@Subscribe method {} must not be static.", method);
+                Util.check(method.getParameterCount() == 1, "@Subscribe method {} must have exactly one parameter.", method);
+                Util.check(!method.getParameterTypes()[0].isPrimitive(), "@Subscribe method {} must not take a primitive.", method);
+                
+                // an annotated override replaces the annotated method it overrides
+                if (!seen.add(Arrays.asList(method.getName(), method.getParameterTypes()[0]))) continue;
+                
+                try {
+                    builder.add(new SubscriberMethod(method, annotation));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(Util.format("@Subscribe method {} is not accessible.", method), e);
+                }
+            }
+        }
+        
+        return Util.asImmutableList(builder.toArray(new SubscriberMethod[0]));
+    }
+    
+    @SuppressWarnings ("unchecked")
+    EventListener<Object> bind(final Object target) {
+        try {
+            if (factory != null) return (EventListener<Object>) factory.invoke(target);
+        } catch (Throwable e) {
+            throw Util.sneakyThrow(e);
+        }
+        
+        val handle = Util.checkNotNull(this.handle, "No invoker for {}.", method).bindTo(target);
+        return event -> {
+            try {
+                handle.invokeExact(event);
+            } catch (Throwable e) {
+                throw Util.sneakyThrow(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventTopic;
+import net.llvg.eventlib.api.phase.PhaseManager;
+import net.llvg.eventlib.impl.Util;
+
+// records the changes of a batch, which the bus applies once the action returned
+@RequiredArgsConstructor
+final class TransactionImpl<P>
+  implements EventBus.Transaction<P>
+{
+    final PhaseManager<P> phases;
+    
+    // pending registrations in registration order, with their topics
+    final LinkedHashMap<RegistrationImpl<P, ?>, EventTopic<?>> added = new LinkedHashMap<>();
+    
+    final ArrayList<RegistrationImpl<P, ?>> removed = new ArrayList<>();
+    
+    // registrations of other implementations, unregistered one by one
+    final ArrayList<EventBus.Registration<P>> foreign = new ArrayList<>();
+    
+    boolean closed = false;
+    
+    @Override
+    public <E> EventBus.Registration<P> register(
+      final EventTopic<E> topic,
+      final P phase,
+      final EventListener<? super E> listener
+    ) {
+        Util.check(!closed, "Transaction is already applied.");
+        Util.argNotNull(topic, "topic");
+        
+        val result = new RegistrationImpl<P, E>(phases.add(phase), Util.argNotNull(listener, "listener"));
+        added.put(result, topic);
+        
+        return result;
+    }
+    
+    @Override
+    public <E> EventBus.Registration<P> register(
+      final EventTopic<E> topic,
+      final EventListener<? super E> listener
+    ) {
+        return register(topic, phases.getDefaultPhase(), listener);
+    }
+    
+    @Override
+    public void unregister(final EventBus.Registration<P> registration) {
+        Util.check(!closed, "Transaction is already applied.");
+        Util.argNotNull(registration, "registration");
+        
+        if (registration instanceof RegistrationImpl) {
+            val reg = (RegistrationImpl<P, ?>) registration;
+            if (added.remove(reg) == null) removed.add(reg);
+        } else {
+            foreign.add(registration);
+        }
+    }
+    
+    // the pending registrations grouped by topic, so that every list is committed once
+    LinkedHashMap<EventTopic<?>, List<RegistrationImpl<P, ?>>> addedByTopic() {
+        val result = new LinkedHashMap<EventTopic<?>, List<RegistrationImpl<P, ?>>>();
+        added.forEach((reg, topic) -> result.computeIfAbsent(topic, $ -> new ArrayList<>()).add(reg));
+        return result;
+    }
+}
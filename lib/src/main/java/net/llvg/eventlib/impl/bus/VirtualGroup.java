@@ -0,0 +1,30 @@
+package net.llvg.eventlib.impl.bus;
+
+// runs a VIRTUAL phase group.
+// this is the Java 8 baseline, which has no virtual threads, so the snapshot factory never builds such a group.
+// the multi-release overlay for 21+ runs every listener of the group on its own virtual thread instead.
+final class VirtualGroup {
+    private VirtualGroup() { }
+    
+    // a method rather than a constant, which javac would inline into the callers compiled against the baseline
+    static boolean isSupported() {
+        return false;
+    }
+    
+    static void invoke(
+      final ParallelSnapshotList<?, ?> snapshot,
+      final Object[] batch,
+      final int from,
+      final int end,
+      final ParallelSnapshotList.Failure failure
+    ) {
+        for (int i = from; i < end; ++i) {
+            try {
+                snapshot.invokeAll(i, batch);
+            } catch (Throwable e) {
+                failure.record(i, e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.llvg.eventlib.impl.bus;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import lombok.val;
+import net.llvg.eventlib.api.bus.EventListener;
+import org.jspecify.annotations.Nullable;
+
+// the listener of a weak registration. the snapshots hold this wrapper only, so the listener
+// can be collected, after which the wrapper is a no-op until its registration is expunged.
+final class WeakListener<E>
+  extends WeakReference<EventListener<? super E>>
+  implements EventListener<E>
+{
+    // stands in for the listener of a weak registration once it was collected
+    static final EventListener<Object> COLLECTED = new EventListener<Object>() {
+        @Override
+        public void invoke(final Object event) { }
+        
+        @Override
+        public String toString() {
+            return "CollectedListener";
+        }
+    };
+    
+    // set before the registration is published, and the listener is reachable until then
+    @Nullable RegistrationImpl<?, ?> registration;
+    
+    private final boolean receivesCancelled;
+    
+    WeakListener(final EventListener<? super E> listener, final ReferenceQueue<Object> queue) {
+        super(listener, queue);
+        this.receivesCancelled = listener.receivesCancelled();
+    }
+    
+    @Override
+    public void invoke(final E event) {
+        val listener = get();
+        if (listener != null) listener.invoke(event);
+    }
+    
+    @Override
+    public boolean receivesCancelled() {
+        return receivesCancelled;
+    }
+}
@@ -0,0 +1,56 @@
+package net.llvg.eventlib.impl.graph;
+
+import java.util.Comparator;
+import java.util.function.IntFunction;
+import lombok.val;
+import lombok.var;
+
+// binary min-heap of ints, ordered by the comparator applied to their keys.
+// unlike a PriorityQueue<Integer>, it does not box the ints it holds
+final class IntHeap<K> {
+    private final int[] heap;
+    private int size = 0;
+    
+    private final IntFunction<? extends K> key;
+    private final Comparator<? super K> comparator;
+    
+    IntHeap(final int capacity, final IntFunction<? extends K> key, final Comparator<? super K> comparator) {
+        this.heap = new int[capacity];
+        this.key = key;
+        this.comparator = comparator;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    void add(final int value) {
+        var i = size++;
+        while (i > 0) {
+            val parent = (i - 1) >>> 1;
+            if (less(heap[parent], value)) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+    
+    int poll() {
+        val r = heap[0];
+        val last = heap[--size];
+        
+        var i = 0;
+        for (int child; (child = 2 * i + 1) < size; i = child) {
+            if (child + 1 < size && less(heap[child + 1], heap[child])) ++child;
+            if (!less(heap[child], last)) break;
+            heap[i] = heap[child];
+        }
+        if (size > 0) heap[i] = last;
+        
+        return r;
+    }
+    
+    private boolean less(final int a, final int b) {
+        return comparator.compare(key.apply(a), key.apply(b)) < 0;
+    }
+}
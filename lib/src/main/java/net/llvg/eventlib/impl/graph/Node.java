@@ -13,6 +13,9 @@ public abstract class Node<N extends Node<N>> {
     
     protected final Set<N> successors;
     
+    // dense id while the node is being sorted, -1 otherwise
+    int id = -1;
+    
     public final @UnmodifiableView Set<N> getSuccessors() {
         return Collections.unmodifiableSet(successors);
     }
@@ -1,89 +1,161 @@
 package net.llvg.eventlib.impl.graph;
 
-import java.util.ArrayDeque;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.val;
 import lombok.var;
-import net.llvg.eventlib.impl.Util;
 
+// iterative Tarjan over a flat copy of the graph.
+// nodes get dense ids in discovery order, and the edges are stored as one int array per graph,
+// so the search needs neither recursion nor boxing, and works on graphs of any depth.
 @NoArgsConstructor (access = AccessLevel.PRIVATE)
 @FieldDefaults (level = AccessLevel.PRIVATE)
 final class Tarjan<N extends Node<N>> {
-    final HashMap<N, Integer> node2dfn = new HashMap<>();
-    int dfn = 0;
-    final ArrayDeque<N> stack = new ArrayDeque<>();
-    final HashSet<N> stacked = new HashSet<>();
+    // node of every id
+    Object[] nodes = new Object[16];
+    int count = 0;
     
-    final HashMap<N, Scc<N>> node2scc = new HashMap<>();
+    // successors of node i are edges[edgeStart[i]] until edges[edgeStart[i + 1]]
+    int[] edgeStart;
+    int[] edges = new int[16];
     
-    public static <N extends Node<N>> HashSet<Scc<N>> compute(final Iterable<? extends N> nodes) {
+    // scc of every node, sccs are numbered in reverse topological order
+    int[] sccOf;
+    int sccCount = 0;
+    
+    // the ids stay assigned until release, so that the caller can map nodes back
+    static <N extends Node<N>> Tarjan<N> compute(final Iterable<? extends N> nodes) {
         val algo = new Tarjan<N>();
-        algo.search(nodes);
-        algo.link();
+        try {
+            algo.flatten(nodes);
+            algo.search();
+        } catch (Throwable e) {
+            algo.release();
+            throw e;
+        }
         
-        return new HashSet<>(algo.node2scc.values());
+        return algo;
+    }
+    
+    @SuppressWarnings ("unchecked")
+    N node(final int id) {
+        return (N) nodes[id];
+    }
+    
+    int count() {
+        return count;
+    }
+    
+    int edgeStart(final int id) {
+        return edgeStart[id];
     }
     
-    private void search(final Iterable<? extends N> nodes) {
-        for (val node : nodes) {
-            if (!node2dfn.containsKey(node)) dfs(node);
+    int edge(final int index) {
+        return edges[index];
+    }
+    
+    int sccOf(final int id) {
+        return sccOf[id];
+    }
+    
+    int sccCount() {
+        return sccCount;
+    }
+    
+    private int idOf(final N node) {
+        if (node.id < 0) {
+            if (count == nodes.length) nodes = Arrays.copyOf(nodes, count * 2);
+            nodes[count] = node;
+            node.id = count++;
         }
+        
+        return node.id;
     }
     
-    private void link() {
-        for (val entry : node2scc.entrySet()) {
-            val scc = entry.getValue();
+    // assigns ids to every reachable node, breadth first, and copies their edges
+    private void flatten(final Iterable<? extends N> roots) {
+        for (val it : roots) idOf(it);
+        
+        var starts = new int[Math.max(16, count + 1)];
+        var size = 0;
+        
+        for (int i = 0; i < count; ++i) {
+            if (i + 1 >= starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+            starts[i] = size;
             
-            for (val next : entry.getKey().getSuccessors()) {
-                val it = node2scc.get(next);
-                
-                Util.check(
-                  it != null,
-                  "Failed to find scc of node {}. " +
-                  Node.CONCURRENT_MODIFICATION_MSG,
-                  next
-                );
-                
-                if (it != scc && scc.successors.add(it)) ++it.inBound;
+            for (val next : node(i).successors) {
+                val id = idOf(next);
+                if (size == edges.length) edges = Arrays.copyOf(edges, size * 2);
+                edges[size++] = id;
             }
         }
+        
+        starts[count] = size;
+        edgeStart = starts;
     }
     
-    private int dfs(final N curr) {
-        val ci = ++dfn;
-        node2dfn.put(curr, ci);
+    private void search() {
+        val index = new int[count]; // 0 if not visited yet
+        val low = new int[count];
+        val cursor = new int[count];
+        val stack = new int[count];
+        val calls = new int[count];
         
-        stack.push(curr);
-        stacked.add(curr);
+        sccOf = new int[count];
+        Arrays.fill(sccOf, -1);
         
-        var low = ci;
+        var dfn = 0;
+        var sp = 0;
         
-        for (val next : curr.getSuccessors()) {
-            val ni = node2dfn.get(next);
+        for (int root = 0; root < count; ++root) {
+            if (index[root] != 0) continue;
             
-            if (ni == null) {
-                low = Math.min(dfs(next), low);
-            } else if (stacked.contains(next)) {
-                low = Math.min(ni, low);
-            }
-        }
-        
-        if (ci == low) {
-            val scc = new Scc<N>();
+            var cp = 0;
+            calls[cp++] = root;
+            index[root] = low[root] = ++dfn;
+            cursor[root] = edgeStart[root];
+            stack[sp++] = root;
             
-            N it;
-            do {
-                it = stack.pop();
-                scc.nodes.add(it);
-                node2scc.put(it, scc);
-                stacked.remove(it);
-            } while (it != curr);
+            while (cp != 0) {
+                val curr = calls[cp - 1];
+                
+                if (cursor[curr] < edgeStart[curr + 1]) {
+                    val next = edges[cursor[curr]++];
+                    
+                    if (index[next] == 0) {
+                        index[next] = low[next] = ++dfn;
+                        cursor[next] = edgeStart[next];
+                        stack[sp++] = next;
+                        calls[cp++] = next;
+                    } else if (sccOf[next] < 0) { // still on the stack
+                        low[curr] = Math.min(low[curr], index[next]);
+                    }
+                    continue;
+                }
+                
+                --cp;
+                
+                if (low[curr] == index[curr]) {
+                    int it;
+                    do {
+                        it = stack[--sp];
+                        sccOf[it] = sccCount;
+                    } while (it != curr);
+                    ++sccCount;
+                }
+                
+                if (cp != 0) {
+                    val parent = calls[cp - 1];
+                    low[parent] = Math.min(low[parent], low[curr]);
+                }
+            }
         }
-        
-        return low;
+    }
+    
+    // the ids only live during one sort, which is why a graph must not be sorted by several threads at once
+    void release() {
+        for (int i = 0; i < count; ++i) node(i).id = -1;
     }
 }
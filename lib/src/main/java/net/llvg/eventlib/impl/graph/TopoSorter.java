@@ -1,10 +1,10 @@
 package net.llvg.eventlib.impl.graph;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import lombok.var;
@@ -24,35 +24,80 @@ public final class TopoSorter {
         Util.argNotNull(collector, "collector");
         Util.argNotNull(comparator, "comparator");
         
-        val sccSet = Tarjan.compute(nodes);
+        val graph = Tarjan.<N>compute(nodes);
+        try {
+            return sort(graph, collector, comparator);
+        } finally {
+            graph.release();
+        }
+    }
+    
+    // kahn's algorithm over the sccs, always taking the one with the smallest first member next
+    private <N extends Node<N>> boolean sort(
+      final Tarjan<N> graph,
+      final Collector<? super N> collector,
+      final Comparator<? super N> comparator
+    ) {
+        val count = graph.count();
+        val sccCount = graph.sccCount();
+        
+        // members of scc c are ordered[sccStart[c]] until ordered[sccStart[c + 1]], sorted by the comparator
+        val sccStart = new int[sccCount + 1];
+        for (int i = 0; i < count; ++i) ++sccStart[graph.sccOf(i) + 1];
+        for (int c = 0; c < sccCount; ++c) sccStart[c + 1] += sccStart[c];
+        
+        @SuppressWarnings ("unchecked")
+        final N[] ordered = (N[]) new Node[count];
+        val fill = Arrays.copyOf(sccStart, sccCount);
+        for (int i = 0; i < count; ++i) ordered[fill[graph.sccOf(i)]++] = graph.node(i);
+        
         var cycleless = true;
+        for (int c = 0; c < sccCount; ++c) {
+            if (sccStart[c + 1] - sccStart[c] > 1) {
+                cycleless = false;
+                Arrays.sort(ordered, sccStart[c], sccStart[c + 1], comparator);
+            }
+        }
         
-        val que = new PriorityQueue<Scc<N>>(Comparator.comparing(it -> it.nodes.get(0), comparator));
+        val inBound = new int[sccCount];
+        for (int i = 0; i < count; ++i) {
+            val from = graph.sccOf(i);
+            for (int e = graph.edgeStart(i), end = graph.edgeStart(i + 1); e < end; ++e) {
+                val to = graph.sccOf(graph.edge(e));
+                if (to != from) ++inBound[to];
+            }
+        }
         
-        for (val scc : sccSet) {
-            if (scc.nodes.size() > 1) cycleless = false;
-            scc.nodes.sort(comparator);
-            
-            if (scc.inBound == 0) que.add(scc);
+        // sccs without unsorted predecessors
+        val que = new IntHeap<N>(sccCount, c -> ordered[sccStart[c]], comparator);
+        for (int c = 0; c < sccCount; ++c) {
+            if (inBound[c] == 0) que.add(c);
         }
         
+        val view = Arrays.asList(ordered);
+        
         collector.prepare();
         var processed = 0;
         
-        for (Scc<N> curr; (curr = que.poll()) != null; ) {
-            collector.add(Collections.unmodifiableList(curr.nodes));
+        while (!que.isEmpty()) {
+            val curr = que.poll();
+            collector.add(Collections.unmodifiableList(view.subList(sccStart[curr], sccStart[curr + 1])));
             ++processed;
             
-            for (val next : curr.successors) {
-                if (0 == --next.inBound) que.add(next);
+            for (int k = sccStart[curr]; k < sccStart[curr + 1]; ++k) {
+                val id = ordered[k].id;
+                for (int e = graph.edgeStart(id), end = graph.edgeStart(id + 1); e < end; ++e) {
+                    val next = graph.sccOf(graph.edge(e));
+                    if (next != curr && 0 == --inBound[next]) que.add(next);
+                }
             }
         }
         
         Util.check(
-          processed == sccSet.size(),
+          processed == sccCount,
           "Failed to process all nodes ({} of {} done). " +
           Node.CONCURRENT_MODIFICATION_MSG,
-          processed, sccSet.size()
+          processed, sccCount
         );
         
         return cycleless;
@@ -63,5 +108,4 @@ public final class TopoSorter {
         
         void add(final @Unmodifiable List<N> nodes);
     }
-    
-}
\ No newline at end of file
+}
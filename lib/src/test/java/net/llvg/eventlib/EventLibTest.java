@@ -1,17 +1,34 @@
 package net.llvg.eventlib;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Value;
 import lombok.val;
+import net.llvg.eventlib.api.bus.Cancellable;
+import net.llvg.eventlib.api.bus.DispatchInterceptor;
 import net.llvg.eventlib.api.bus.EventBus;
+import net.llvg.eventlib.api.bus.EventException;
 import net.llvg.eventlib.api.bus.EventListener;
+import net.llvg.eventlib.api.bus.EventRing;
 import net.llvg.eventlib.api.bus.EventTopic;
 import net.llvg.eventlib.api.bus.ForwardingEventBus;
+import net.llvg.eventlib.api.bus.Subscribe;
+import net.llvg.eventlib.api.metrics.DispatchMetrics;
 import net.llvg.eventlib.api.phase.PhaseManager;
 import net.llvg.eventlib.impl.Util;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -24,6 +41,23 @@ public final class EventLibTest {
     static class TestChildEvent
       extends TestEvent { }
     
+    static class TestCancellableEvent
+      extends TestEvent
+      implements Cancellable
+    {
+        boolean cancelled;
+        
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public void setCancelled(final boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+    
     @Test
     void testBasicFunctionality() {
         val bus = EventBus.create("default");
@@ -80,6 +114,34 @@ public final class EventLibTest {
         );
     }
     
+    @Test
+    void testPhaseChange() {
+        val dirty = new int[]{ 0 };
+        val bus = EventBus.create(PhaseManager.builderComparable("b").onDirty(() -> ++dirty[0]));
+        val list = new ArrayList<String>();
+        
+        bus.register(TestEvent.class, "a", e -> list.add("a"));
+        bus.register(TestEvent.class, "b", e -> list.add("b"));
+        bus.register(TestEvent.class, "a", e -> list.add("a"));
+        bus.register(TestEvent.class, "b", e -> list.add("b"));
+        
+        bus.post(new TestEvent());
+        Assertions.assertEquals(Arrays.asList("a", "a", "b", "b"), list, "Visit order mismatch.");
+        
+        list.clear();
+        bus.getPhases().link("b", "a");
+        bus.post(new TestEvent());
+        Assertions.assertEquals(Arrays.asList("b", "b", "a", "a"), list, "Visit order mismatch. (reordered)");
+        
+        list.clear();
+        bus.getPhases().link("a", "c");
+        bus.register(TestEvent.class, "c", e -> list.add("c"));
+        bus.post(new TestEvent());
+        Assertions.assertEquals(Arrays.asList("b", "b", "a", "a", "c"), list, "Visit order mismatch. (new phase)");
+        
+        Assertions.assertTrue(dirty[0] > 0, "[onDirty] of the phase manager builder should be kept by the bus.");
+    }
+    
     @Test
     void testCustomPhase() {
         @Value
@@ -113,6 +175,54 @@ public final class EventLibTest {
         ANOTHER, DEFAULT
     }
     
+    @Test
+    void testIncrementalSort() {
+        val random = new Random(42);
+        val phases = PhaseManager.builderComparable(0).build();
+        val links = new ArrayList<int[]>();
+        
+        for (int step = 0; step < 300; ++step) {
+            val link = new int[]{ random.nextInt(60), random.nextInt(60) };
+            phases.link(link[0], link[1]);
+            links.add(link);
+            
+            val fresh = PhaseManager.builderComparable(0).build();
+            for (val it : links) fresh.link(it[0], it[1]);
+            
+            Assertions.assertEquals(fresh.getSorted(), phases.getSorted(), "Sorted phases mismatch. (step " + step + ")");
+        }
+        
+        val sorted = phases.getSorted();
+        phases.link(sorted.get(0), sorted.get(sorted.size() - 1));
+        Assertions.assertSame(sorted, phases.getSorted(), "Ordered link should keep the sorted phases.");
+        
+        // the cycle is keyed by "a", so it moves before the kept "k"
+        val cycle = PhaseManager.builderComparable("k").build();
+        cycle.add("m");
+        cycle.add("a");
+        cycle.link("m", "a");
+        cycle.getSorted();
+        cycle.link("a", "m");
+        Assertions.assertEquals(Arrays.asList("a", "m", "k"), cycle.getSorted(), "Sorted phases mismatch after closing a cycle.");
+    }
+    
+    @Test
+    void testLongChain() {
+        val phases = PhaseManager.builderComparable(0).build();
+        val count = 100000;
+        
+        for (int i = count - 1; i > 0; --i) phases.link(i, i - 1);
+        phases.link(0, count - 1); // closes the chain into one cycle
+        phases.link(count, 0);
+        
+        val sorted = phases.getSorted();
+        Assertions.assertEquals(count + 1, sorted.size(), "Sorted phases size mismatch.");
+        Assertions.assertEquals(count, sorted.get(0), "Phase before the cycle should come first.");
+        for (int i = 1; i <= count; ++i) {
+            Assertions.assertEquals(i - 1, sorted.get(i), "Cycle should be sorted by the comparator.");
+        }
+    }
+    
     @Test
     void testEnumPhase() {
         val bus = EventBus.create(PhaseManager.builderEnum(EnumPhases.DEFAULT));
@@ -175,6 +285,75 @@ public final class EventLibTest {
         );
     }
     
+    @Test
+    void testPostAfterLateRegistration() {
+        val bus = EventBus.create("default");
+        val visit = new int[]{ 0, 0 };
+        
+        bus.post(new TestChildEvent());
+        
+        bus.register(TestEvent.class, e -> ++visit[0]);
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(1, visit[0], "Visit count mismatch. (cached dispatch must observe new registrations)");
+        
+        val reg = bus.register(TestChildEvent.class, e -> ++visit[1]);
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(2, visit[0], "Visit count mismatch.");
+        Assertions.assertEquals(1, visit[1], "Visit count mismatch.");
+        
+        reg.unregister();
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(3, visit[0], "Visit count mismatch.");
+        Assertions.assertEquals(1, visit[1], "Visit count mismatch. (cached dispatch must observe unregistration)");
+        
+        val root = bus.register(TestEvent.class, e -> ++visit[1]);
+        root.setActive(false);
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(1, visit[1], "Visit count mismatch. (cached dispatch must observe toggles)");
+        
+        root.setActive(true);
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(2, visit[1], "Visit count mismatch. (cached dispatch must observe toggles)");
+    }
+    
+    @Test
+    void testRootRegistration() throws InterruptedException {
+        val bus = EventBus.create("default");
+        val root = EventTopic.<TestEvent>of();
+        val children = new ArrayList<EventTopic<TestEvent>>();
+        for (int i = 0; i < 16; ++i) {
+            val it = EventTopic.<TestEvent>of(root);
+            bus.register(it, e -> { });
+            children.add(it);
+        }
+        
+        val visit = new int[]{ 0 };
+        val held = bus.getSnapshot(children.get(0));
+        val reg = bus.register(root, e -> ++visit[0]);
+        Assertions.assertEquals(1, held.size(), "Held snapshot size mismatch.");
+        for (val it : children) Assertions.assertEquals(2, bus.getSnapshot(it).size(), "Snapshot size mismatch. (root registration)");
+        
+        val current = bus.getSnapshot(children.get(0));
+        reg.setActive(false);
+        current.post(new TestEvent());
+        Assertions.assertEquals(0, visit[0], "Visit count mismatch. (held snapshot must observe the toggle)");
+        
+        // posting races with churn on the root, partly in new phases, and has to settle on the final registrations
+        val threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            val thread = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 200; ++j) bus.register(root, j % 2 == 0 ? "default" : thread + "-" + j, e -> { }).unregister();
+            });
+            threads[i].start();
+        }
+        for (int j = 0; j < 200; ++j) for (val it : children) bus.post(it, new TestEvent());
+        for (val it : threads) it.join();
+        
+        reg.unregister();
+        for (val it : children) Assertions.assertEquals(1, bus.getSnapshot(it).size(), "Snapshot size mismatch. (after churn)");
+    }
+    
     @Test
     void testRegistration() {
         val bus = EventBus.create("default");
@@ -204,6 +383,603 @@ public final class EventLibTest {
         Assertions.assertEquals(2, counter[0], "Visit count mismatch (counter should not increase after registration deprecated).");
     }
     
+    @Test
+    void testToggleWithSnapshot() {
+        val bus = EventBus.create("default");
+        val parent = EventTopic.<TestEvent>of();
+        val child = EventTopic.<TestEvent>of(parent);
+        val counter = new int[]{ 0, 0 };
+        
+        val reg = bus.register(parent, e -> ++counter[0]);
+        bus.register(child, e -> ++counter[1]);
+        
+        val held = bus.getSnapshot(child);
+        reg.setActive(false);
+        
+        held.post(new TestEvent());
+        Assertions.assertEquals(0, counter[0], "Held snapshot must skip a registration paused after it was taken.");
+        Assertions.assertEquals(1, counter[1], "Visit count mismatch.");
+        
+        val current = bus.getSnapshot(child);
+        Assertions.assertEquals(2, current.size(), "Snapshot should still list paused registrations.");
+        
+        current.post(new TestEvent());
+        Assertions.assertEquals(0, counter[0], "Visit count mismatch (paused).");
+        
+        reg.setActive(true);
+        current.post(new TestEvent());
+        bus.post(child, new TestEvent());
+        Assertions.assertEquals(2, counter[0], "Visit count mismatch (resumed).");
+        Assertions.assertEquals(4, counter[1], "Visit count mismatch.");
+        
+        // a snapshot replaced by a registration still observes later toggles
+        val patched = bus.getSnapshot(child);
+        bus.register(child, e -> { });
+        reg.setActive(false);
+        patched.post(new TestEvent());
+        Assertions.assertEquals(2, counter[0], "Visit count mismatch (paused after patch).");
+    }
+    
+    public static class TestSubscriber {
+        final ArrayList<String> visits = new ArrayList<>();
+        
+        @Subscribe (phase = "later")
+        public void onLater(final TestEvent event) {
+            visits.add("later");
+        }
+        
+        @Subscribe
+        public void onDefault(final TestEvent event) {
+            visits.add("default");
+        }
+        
+        @Subscribe (phase = "latest")
+        private void onChild(final TestChildEvent event) {
+            visits.add("child");
+        }
+    }
+    
+    @Test
+    void testSubscriber() {
+        val bus = EventBus.create("default");
+        bus.getPhases().link("default", "later");
+        bus.getPhases().link("later", "latest");
+        
+        val subscriber = new TestSubscriber();
+        val regs = bus.register(subscriber);
+        Assertions.assertEquals(3, regs.size(), "Registration count mismatch.");
+        
+        // from Java 17, every method is linked into a lambda of its own class, private ones included
+        val spec = System.getProperty("java.specification.version");
+        if (!spec.startsWith("1.") && Integer.parseInt(spec) >= 17) {
+            for (val it : regs) {
+                Assertions.assertTrue(
+                  it.getListener().getClass().getName().startsWith(TestSubscriber.class.getName() + "$$Lambda"),
+                  () -> Util.format("Listener class mismatch, got {}.", it.getListener().getClass())
+                );
+            }
+        }
+        
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(Arrays.asList("default", "later", "child"), subscriber.visits, "Visit order mismatch.");
+        
+        bus.unregister(subscriber);
+        for (val it : regs) Assertions.assertFalse(it.isRegistered(), "[reg.isRegistered()] result mismatch.");
+        
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(3, subscriber.visits.size(), "Visit count mismatch (after unregister).");
+        
+        Assertions.assertThrows(
+          IllegalStateException.class,
+          () -> bus.register(new Object() {
+              @Subscribe
+              void invalid(final TestEvent a, final TestEvent b) { }
+          }),
+          "Invalid @Subscribe method should be rejected."
+        );
+    }
+    
+    @Test
+    void testCancellable() {
+        val bus = EventBus.create("default");
+        bus.getPhases().link("early", "default");
+        bus.getPhases().link("default", "later");
+        bus.getPhases().link("later", "latest");
+        val visits = new ArrayList<String>();
+        val resume = new boolean[]{ false };
+        
+        bus.register(
+          TestEvent.class,
+          "early",
+          e -> {
+              visits.add("early");
+              if (e instanceof Cancellable) ((Cancellable) e).setCancelled(true);
+          }
+        );
+        bus.register(TestEvent.class, e -> visits.add("default"));
+        bus.register(
+          TestEvent.class,
+          "later",
+          EventListener.receivingCancelled(e -> {
+              visits.add("later");
+              if (resume[0] && e instanceof Cancellable) ((Cancellable) e).setCancelled(false);
+          })
+        );
+        bus.register(TestEvent.class, "latest", e -> visits.add("latest"));
+        
+        bus.post(new TestEvent());
+        Assertions.assertEquals(Arrays.asList("early", "default", "later", "latest"), visits, "Visit mismatch. (not cancellable)");
+        
+        visits.clear();
+        bus.post(new TestCancellableEvent());
+        Assertions.assertEquals(Arrays.asList("early", "later"), visits, "Visit mismatch. (cancelled)");
+        
+        // cleared by a listener receiving cancelled events, after which dispatch resumes
+        visits.clear();
+        resume[0] = true;
+        Assertions.assertNull(bus.postAndCatch(new TestCancellableEvent()), "[bus.postAndCatch(...)] should succeed.");
+        Assertions.assertEquals(Arrays.asList("early", "later", "latest"), visits, "Visit mismatch. (resumed)");
+        
+        visits.clear();
+        resume[0] = false;
+        bus.postAll(
+          EventTopic.forClass(TestEvent.class),
+          Arrays.asList(new TestEvent(), new TestCancellableEvent()),
+          EventBus.BatchOrder.LISTENER_MAJOR
+        );
+        Assertions.assertEquals(
+          Arrays.asList("early", "early", "default", "later", "later", "latest"),
+          visits,
+          "Visit mismatch. (listener-major batch)"
+        );
+        
+        val subscriber = new Object() {
+            @Subscribe (phase = "latest", receiveCancelled = true)
+            void onEvent(final TestCancellableEvent event) {
+                visits.add("subscriber");
+            }
+        };
+        bus.register(subscriber);
+        
+        visits.clear();
+        bus.post(new TestCancellableEvent());
+        Assertions.assertEquals(Arrays.asList("early", "later", "subscriber"), visits, "Visit mismatch. (subscriber)");
+    }
+    
+    @Test
+    void testKeyedDispatch() {
+        val bus = EventBus.create("default");
+        bus.getPhases().link("early", "default");
+        bus.getPhases().link("default", "later");
+        val root = EventTopic.<TestEvent>of("root");
+        val topic = EventTopic.<TestEvent>of("topic", root);
+        val visits = new ArrayList<String>();
+        
+        bus.register(topic, "default", e -> visits.add("unkeyed"));
+        bus.register(root, "later", e -> visits.add("root"));
+        bus.register(topic, "a", "early", e -> visits.add("a early"));
+        val later = bus.register(topic, "a", "later", e -> visits.add("a later"));
+        bus.register(topic, "b", "default", e -> visits.add("b"));
+        
+        bus.post(topic, "a", new TestEvent());
+        Assertions.assertEquals(4, visits.size(), "Visit count mismatch. (key a)");
+        Assertions.assertEquals(Arrays.asList("a early", "unkeyed"), visits.subList(0, 2), "Visit mismatch. (key a)");
+        Assertions.assertTrue(visits.containsAll(Arrays.asList("a later", "root")), "Visit mismatch. (key a)");
+        
+        visits.clear();
+        bus.post(topic, "c", new TestEvent());
+        Assertions.assertEquals(Arrays.asList("unkeyed", "root"), visits, "Visit mismatch. (unknown key)");
+        
+        visits.clear();
+        bus.post(topic, new TestEvent());
+        Assertions.assertEquals(Arrays.asList("unkeyed", "root"), visits, "Visit mismatch. (unkeyed post)");
+        
+        visits.clear();
+        later.unregister();
+        bus.post(topic, "a", new TestEvent());
+        Assertions.assertEquals(Arrays.asList("a early", "unkeyed", "root"), visits, "Visit mismatch. (unregistered)");
+        
+        // keys without registrations are forgotten by the sweeps, and come back on registration
+        val visited = new int[]{ 0 };
+        for (int round = 0; round < 2; ++round) {
+            val regs = new ArrayList<EventBus.Registration<String>>();
+            for (int i = 0; i < 500; ++i) {
+                val hit = i == 7;
+                regs.add(bus.register(topic, round * 1000 + i, "default", e -> visited[0] += hit ? 1 : 100));
+            }
+            for (int i = 0; i < 50; ++i) bus.post(topic, round * 1000 + 7, new TestEvent());
+            regs.forEach(EventBus.Registration::unregister);
+        }
+        Assertions.assertEquals(100, visited[0], "Visit count mismatch. (churned keys)");
+        
+        visits.clear();
+        bus.post(topic, 1007, new TestEvent());
+        Assertions.assertEquals(Arrays.asList("unkeyed", "root"), visits, "Visit mismatch. (unregistered key)");
+    }
+    
+    @Test
+    void testEventRing() throws InterruptedException {
+        val bus = EventBus.create("default");
+        val topic = EventTopic.<int[]>of("ring");
+        val producers = 4;
+        val count = 20000;
+        val last = new int[producers];
+        val order = new boolean[]{ true };
+        val errors = new ArrayList<Throwable>();
+        Arrays.fill(last, -1);
+        
+        // only the consumer thread touches the arrays until the ring is closed
+        bus.register(
+          topic,
+          e -> {
+              if (e[1] < 0) throw new IllegalStateException("failing event");
+              if (e[1] != last[e[0]] + 1) order[0] = false;
+              last[e[0]] = e[1];
+          }
+        );
+        
+        val ring = EventRing.builder(bus, topic)
+          .capacity(64)
+          .batchSize(16)
+          .waitStrategy(EventRing.WaitStrategy.YIELD)
+          .errorHandler(errors::add)
+          .build();
+        Assertions.assertEquals(64, ring.getCapacity(), "Capacity mismatch.");
+        
+        val threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; ++p) {
+            val producer = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < count; ++i) {
+                    if (i % 2 == 0) {
+                        ring.publish(new int[]{ producer, i });
+                    } else {
+                        while (!ring.tryPublish(new int[]{ producer, i })) Thread.yield();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (val it : threads) it.join();
+        
+        ring.publish(new int[]{ 0, -1 });
+        ring.close();
+        Assertions.assertTrue(ring.isClosed(), "[ring.isClosed()] should be true after close.");
+        
+        Assertions.assertTrue(order[0], "Events of a producer should be posted in order.");
+        for (val it : last) Assertions.assertEquals(count - 1, it, "Last event mismatch.");
+        Assertions.assertEquals(1, errors.size(), "Error count mismatch.");
+        
+        Assertions.assertFalse(ring.tryPublish(new int[]{ 0, 0 }), "[ring.tryPublish(...)] should fail after close.");
+        Assertions.assertThrows(
+          IllegalStateException.class,
+          () -> ring.publish(new int[]{ 0, 0 }),
+          "[ring.publish(...)] should fail after close."
+        );
+        Assertions.assertThrows(
+          IllegalStateException.class,
+          () -> EventRing.builder(bus, topic).capacity(100).build(),
+          "Capacity that is not a power of two should be rejected."
+        );
+    }
+    
+    @Test
+    void testRingParking() throws InterruptedException {
+        val bus = EventBus.create("default");
+        val topic = EventTopic.<Integer>of();
+        val received = new CountDownLatch(3);
+        bus.register(topic, e -> received.countDown());
+        
+        val threads = Collections.synchronizedList(new ArrayList<Thread>());
+        val ring = EventRing.builder(bus, topic)
+          .consumers(2)
+          .waitStrategy(EventRing.WaitStrategy.PARK)
+          .threadFactory(it -> {
+              val thread = new Thread(it);
+              thread.setDaemon(true);
+              threads.add(thread);
+              return thread;
+          })
+          .build();
+        
+        // the consumers back off to long parks meanwhile, and have to be woken by the producers
+        for (int i = 0; i < 3; ++i) {
+            Thread.sleep(100);
+            ring.publish(i);
+        }
+        Assertions.assertTrue(received.await(10, TimeUnit.SECONDS), "Parked consumers should be woken.");
+        
+        Assertions.assertEquals(2, threads.size(), "Consumer count mismatch.");
+        for (val it : threads) Assertions.assertTrue(it.isAlive(), "Consumer should run until the ring is closed.");
+        
+        ring.close();
+        for (val it : threads) Assertions.assertFalse(it.isAlive(), "Consumer should stop once the ring is closed.");
+    }
+    
+    @Test
+    void testRingOverflow() throws InterruptedException {
+        val policies = Arrays.asList(
+          EventRing.Overflow.BLOCK,
+          EventRing.Overflow.DROP_NEWEST,
+          EventRing.Overflow.DROP_OLDEST,
+          EventRing.Overflow.COALESCE
+        );
+        val expected = Arrays.asList(
+          Arrays.asList(0, 1, 2, 3, 4, 5),
+          Arrays.asList(0, 1, 2, 3, 4),
+          Arrays.asList(0, 2, 3, 4, 5),
+          Arrays.asList(0, 31, 22)
+        );
+        
+        for (int p = 0; p < policies.size(); ++p) {
+            val policy = policies.get(p);
+            val metrics = new DispatchMetrics();
+            val bus = EventBus.create("default");
+            val topic = EventTopic.<Integer>of(policy.name());
+            val entered = new CountDownLatch(1);
+            val gate = new CountDownLatch(1);
+            val received = Collections.synchronizedList(new ArrayList<Integer>());
+            
+            // the consumer holds the first event until the ring was filled
+            bus.register(
+              topic,
+              e -> {
+                  if (e == 0) {
+                      entered.countDown();
+                      try {
+                          gate.await(10, TimeUnit.SECONDS);
+                      } catch (InterruptedException ex) {
+                          throw new RuntimeException(ex);
+                      }
+                  }
+                  received.add(e);
+              }
+            );
+            
+            val ring = EventRing.builder(bus, topic)
+              .capacity(4)
+              .batchSize(1)
+              .overflow(policy)
+              .coalesceKey(e -> e % 10)
+              .metrics(metrics)
+              .build();
+            
+            ring.publish(0);
+            Assertions.assertTrue(entered.await(10, TimeUnit.SECONDS), "Consumer should take the first event.");
+            
+            Thread blocked = null;
+            if (policy == EventRing.Overflow.COALESCE) {
+                for (val it : Arrays.asList(11, 12, 21, 22, 31)) ring.publish(it);
+                Assertions.assertEquals(2, ring.getSize(), "Queue depth mismatch. (" + policy + ")");
+            } else {
+                for (int i = 1; i <= 4; ++i) Assertions.assertTrue(ring.publish(i), "Event should be published. (" + policy + ")");
+                Assertions.assertEquals(4, ring.getSize(), "Queue depth mismatch. (" + policy + ")");
+                Assertions.assertFalse(ring.tryPublish(5), "[ring.tryPublish(...)] should fail on a full ring.");
+                
+                if (policy == EventRing.Overflow.BLOCK) {
+                    blocked = new Thread(() -> ring.publish(5));
+                    blocked.start();
+                    Thread.sleep(50);
+                } else {
+                    Assertions.assertEquals(
+                      policy == EventRing.Overflow.DROP_OLDEST,
+                      ring.publish(5),
+                      "[ring.publish(...)] result mismatch. (" + policy + ")"
+                    );
+                }
+            }
+            Assertions.assertEquals(
+              Collections.singletonMap(Objects.requireNonNull(metrics.getTopic(topic)).getLabel(), (long) ring.getSize()),
+              metrics.getQueueDepths(),
+              "Queue depths mismatch. (" + policy + ")"
+            );
+            
+            gate.countDown();
+            if (blocked != null) blocked.join();
+            ring.close();
+            
+            Assertions.assertEquals(expected.get(p), received, "Received events mismatch. (" + policy + ")");
+            
+            val stats = metrics.getTopic(topic);
+            Assertions.assertNotNull(stats, "[metrics.getTopic(topic)] should not be null.");
+            Assertions.assertEquals(
+              policy == EventRing.Overflow.DROP_NEWEST || policy == EventRing.Overflow.DROP_OLDEST ? 1 : 0,
+              stats.getDropCount(),
+              "Drop count mismatch. (" + policy + ")"
+            );
+            Assertions.assertEquals(
+              policy == EventRing.Overflow.COALESCE ? 3 : 0,
+              stats.getCoalesceCount(),
+              "Coalesce count mismatch. (" + policy + ")"
+            );
+            Assertions.assertEquals(
+              policy == EventRing.Overflow.BLOCK,
+              stats.getBlockedNanos() > 0,
+              "Blocked time mismatch. (" + policy + ")"
+            );
+        }
+        
+        // producers merging into pending events that then find the ring full must have them recorded as dropped
+        val metrics = new DispatchMetrics();
+        val bus = EventBus.create("default");
+        val topic = EventTopic.<Integer>of();
+        val gate = new CountDownLatch(1);
+        val received = Collections.synchronizedList(new ArrayList<Integer>());
+        bus.register(
+          topic,
+          e -> {
+              try {
+                  gate.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException ex) {
+                  throw new RuntimeException(ex);
+              }
+              received.add(e);
+          }
+        );
+        
+        val ring = EventRing.builder(bus, topic)
+          .capacity(1)
+          .batchSize(1)
+          .overflow(EventRing.Overflow.COALESCE)
+          .coalesceKey(e -> e % 10)
+          .metrics(metrics)
+          .build();
+        
+        ring.publish(1);
+        while (ring.getSize() != 0) Thread.yield();
+        ring.publish(2);
+        
+        val merged = new AtomicInteger();
+        val producers = new Thread[4];
+        for (int t = 0; t < producers.length; ++t) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; ++i) if (ring.tryPublish(i * 10)) merged.incrementAndGet();
+            });
+            producers[t].start();
+        }
+        for (val it : producers) it.join();
+        
+        gate.countDown();
+        ring.close();
+        
+        Assertions.assertEquals(Arrays.asList(1, 2), received, "Received events mismatch. (contended)");
+        val stats = metrics.getTopic(topic);
+        Assertions.assertNotNull(stats, "[metrics.getTopic(topic)] should not be null.");
+        Assertions.assertEquals(merged.get(), stats.getCoalesceCount(), "Coalesce count mismatch. (contended)");
+        Assertions.assertEquals(
+          merged.get() > 0,
+          stats.getDropCount() > 0,
+          "Drop count mismatch. (contended)"
+        );
+    }
+    
+    @Test
+    void testBatch() {
+        val bus = EventBus.create("default");
+        val root = EventTopic.<TestEvent>of();
+        val child = EventTopic.<TestEvent>of(root);
+        val visit = new int[]{ 0, 0, 0 };
+        
+        val old = bus.register(root, e -> ++visit[2]);
+        bus.post(child, new TestEvent());
+        
+        val leaked = new ArrayList<EventBus.Transaction<String>>();
+        val group = bus.batch(tx -> {
+            val reg = tx.register(root, e -> ++visit[0]);
+            tx.register(child, "default", e -> ++visit[1]);
+            tx.unregister(tx.register(child, e -> ++visit[2]));
+            tx.unregister(old);
+            
+            Assertions.assertFalse(reg.isRegistered(), "Registration should be pending until the batch is applied.");
+            leaked.add(tx);
+        });
+        
+        Assertions.assertEquals(2, group.getRegistrations().size(), "Group size mismatch.");
+        Assertions.assertFalse(old.isRegistered(), "Registration should be unregistered by the batch.");
+        Assertions.assertThrows(IllegalStateException.class, () -> leaked.get(0).register(root, e -> { }));
+        
+        bus.post(child, new TestEvent());
+        Assertions.assertArrayEquals(new int[]{ 1, 1, 1 }, visit, "Visit count mismatch.");
+        
+        group.setActive(false);
+        bus.post(child, new TestEvent());
+        Assertions.assertArrayEquals(new int[]{ 1, 1, 1 }, visit, "Visit count mismatch. (group is inactive)");
+        
+        group.setActive(true);
+        bus.post(child, new TestEvent());
+        Assertions.assertArrayEquals(new int[]{ 2, 2, 1 }, visit, "Visit count mismatch. (group is active again)");
+        
+        group.unregister();
+        bus.post(child, new TestEvent());
+        Assertions.assertArrayEquals(new int[]{ 2, 2, 1 }, visit, "Visit count mismatch. (group is unregistered)");
+        Assertions.assertEquals(0, bus.getSnapshot(child).size(), "Snapshot size mismatch.");
+        
+        Assertions.assertThrows(
+          IllegalArgumentException.class,
+          () -> bus.batch(tx -> {
+              tx.register(root, e -> ++visit[0]);
+              throw new IllegalArgumentException();
+          })
+        );
+        Assertions.assertEquals(0, bus.getSnapshot(child).size(), "Snapshot size mismatch. (failed batch must not apply)");
+    }
+    
+    @Test
+    void testWeakRegistration() throws InterruptedException {
+        val bus = EventBus.create("default");
+        val topic = EventTopic.<TestEvent>of();
+        val counter = new int[]{ 0 };
+        
+        EventListener<TestEvent> strong = e -> ++counter[0];
+        val kept = bus.registerWeak(topic, strong);
+        val dropped = registerWeakDropped(bus, topic, counter);
+        Assertions.assertSame(strong, kept.getListener(), "[kept.getListener()] mismatch.");
+        
+        bus.post(topic, new TestEvent());
+        Assertions.assertEquals(2, bus.getSnapshot(topic).size(), "Snapshot size mismatch.");
+        
+        for (int i = 0; i < 50 && dropped.isRegistered(); ++i) {
+            System.gc();
+            Thread.sleep(10);
+            bus.register(topic, e -> { }).unregister();
+        }
+        
+        Assertions.assertFalse(dropped.isRegistered(), "Collected listener should be expunged.");
+        Assertions.assertNotNull(dropped.getListener(), "[dropped.getListener()] should not be null once collected.");
+        Assertions.assertTrue(kept.isRegistered(), "Reachable listener should stay registered.");
+        Assertions.assertEquals(1, bus.getSnapshot(topic).size(), "Snapshot size mismatch. (after expunge)");
+        
+        counter[0] = 0;
+        bus.post(topic, new TestEvent());
+        Assertions.assertEquals(1, counter[0], "Visit count mismatch.");
+        
+        @SuppressWarnings ("unchecked")
+        val placeholder = (EventListener<TestEvent>) dropped.getListener();
+        placeholder.invoke(new TestEvent());
+        Assertions.assertEquals(1, counter[0], "Visit count mismatch. (placeholder)");
+        Assertions.assertNotNull(strong); // keeps the listener reachable up to here
+    }
+    
+    private static EventBus.Registration<String> registerWeakDropped(
+      final EventBus<String> bus,
+      final EventTopic<TestEvent> topic,
+      final int[] counter
+    ) {
+        return bus.registerWeak(topic, e -> ++counter[0]);
+    }
+    
+    @Test
+    void testAdHocTopics() {
+        val bus = EventBus.create("default");
+        val root = EventTopic.<TestEvent>of();
+        val live = EventTopic.<TestEvent>of(root);
+        val visit = new int[]{ 0, 0 };
+        
+        bus.register(live, e -> ++visit[1]);
+        
+        val adHoc = new ArrayList<EventTopic<TestEvent>>();
+        for (int i = 0; i < 1000; ++i) {
+            val topic = EventTopic.<TestEvent>of(root);
+            bus.post(topic, new TestEvent());
+            adHoc.add(topic);
+        }
+        
+        bus.register(root, e -> ++visit[0]);
+        
+        bus.post(live, new TestEvent());
+        Assertions.assertEquals(1, visit[0], "Root listener visit count mismatch.");
+        Assertions.assertEquals(1, visit[1], "Live listener visit count mismatch. (registered list must survive sweeps)");
+        
+        for (val it : adHoc) bus.post(it, new TestEvent());
+        Assertions.assertEquals(1001, visit[0], "Root listener visit count mismatch. (reclaimed topics must resolve again)");
+        Assertions.assertEquals(1, visit[1], "Live listener visit count mismatch.");
+        
+        bus.post(new TestChildEvent());
+        bus.register(TestChildEvent.class, e -> ++visit[1]);
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(2, visit[1], "Class topic listener visit count mismatch.");
+    }
+    
     @Test
     void testAutoClosing() {
         val bus = EventBus.create("default");
@@ -258,6 +1034,48 @@ public final class EventLibTest {
         Assertions.assertEquals(2, snapshot2.size(), "Snapshot 2 size mismatch.");
     }
     
+    @Test
+    void testSnapshotPatching() throws InterruptedException {
+        val bus = EventBus.create(0);
+        bus.getPhases().link(0, 1);
+        bus.getPhases().link(1, 2);
+        
+        val list = new ArrayList<Integer>();
+        
+        bus.register(TestEvent.class, 1, e -> list.add(1));
+        bus.post(new TestChildEvent());
+        
+        bus.register(TestChildEvent.class, 2, e -> list.add(2));
+        bus.register(TestEvent.class, 0, e -> list.add(0));
+        val reg = bus.register(TestEvent.class, 1, e -> list.add(-1));
+        
+        val snapshot = bus.getSnapshot(TestChildEvent.class);
+        Assertions.assertEquals(4, snapshot.size(), "Snapshot size mismatch.");
+        for (int i = 1; i < snapshot.size(); ++i) {
+            Assertions.assertTrue(
+              snapshot.get(i - 1).getPhase() <= snapshot.get(i).getPhase(),
+              "Patched snapshot must stay in phase order."
+            );
+        }
+        
+        reg.unregister();
+        bus.post(new TestChildEvent());
+        Assertions.assertEquals(Arrays.asList(1, 0, 1, 2), list, "Visit order mismatch.");
+        Assertions.assertEquals(4, snapshot.size(), "Snapshot size mismatch. (should not be modified)");
+        
+        // racing unregistrations of the same registration patch the snapshot once
+        for (int round = 0; round < 50; ++round) {
+            val racing = bus.register(TestEvent.class, 1, e -> { });
+            Assertions.assertEquals(4, bus.getSnapshot(TestChildEvent.class).size(), "Snapshot size mismatch. (racing)");
+            
+            val threads = new Thread[4];
+            for (int i = 0; i < threads.length; ++i) (threads[i] = new Thread(racing::unregister)).start();
+            for (val it : threads) it.join();
+            
+            Assertions.assertEquals(3, bus.getSnapshot(TestChildEvent.class).size(), "Snapshot size mismatch. (after racing)");
+        }
+    }
+    
     @Test
     void testPostAndCatch() {
         val bus = EventBus.create("default");
@@ -286,6 +1104,420 @@ public final class EventLibTest {
         Assertions.assertNull(noError, "[bus.postAndCatch(new TestEvent())] should return null on success.");
     }
     
+    @Test
+    void testClassTopicIdentity() throws InterruptedException {
+        val threads = new Thread[4];
+        val topics = new EventTopic<?>[threads.length];
+        
+        for (int i = 0; i < threads.length; ++i) {
+            val index = i;
+            threads[i] = new Thread(() -> topics[index] = EventTopic.forClass(TestChildEvent.class));
+            threads[i].start();
+        }
+        for (val it : threads) it.join();
+        
+        for (val it : topics) {
+            Assertions.assertSame(EventTopic.forClass(TestChildEvent.class), it, "Class topics must be unique per class.");
+        }
+        
+        val supertopics = new ArrayList<>();
+        for (val it : EventTopic.forClass(TestChildEvent.class).getSupertopics()) supertopics.add(it);
+        
+        Assertions.assertEquals(
+          Collections.singletonList(EventTopic.forClass(TestEvent.class)),
+          supertopics,
+          "Class topics must reuse the topics of their ancestors."
+        );
+    }
+    
+    @Test
+    void testPostAll() {
+        val bus = EventBus.create(0);
+        bus.getPhases().link(0, 1);
+        
+        val topic = EventTopic.<Integer>of();
+        val list = new ArrayList<String>();
+        
+        bus.register(topic, 1, e -> list.add("b" + e));
+        bus.register(topic, 0, e -> list.add("a" + e));
+        
+        bus.postAll(topic, new Integer[]{ 1, 2 });
+        Assertions.assertEquals(Arrays.asList("a1", "b1", "a2", "b2"), list, "Event-major visit order mismatch.");
+        
+        list.clear();
+        bus.postAll(topic, Arrays.asList(1, 2), EventBus.BatchOrder.LISTENER_MAJOR);
+        Assertions.assertEquals(Arrays.asList("a1", "a2", "b1", "b2"), list, "Listener-major visit order mismatch.");
+        
+        list.clear();
+        bus.postAll(topic, () -> Arrays.asList(1, 2).iterator(), EventBus.BatchOrder.LISTENER_MAJOR);
+        Assertions.assertEquals(Arrays.asList("a1", "a2", "b1", "b2"), list, "Listener-major visit order mismatch. (iterable)");
+    }
+    
+    @Test
+    void testCompiledDispatch() {
+        val bus = EventBus.builder(PhaseManager.builderComparable(0)).compileAfter(Duration.ZERO).build();
+        val topic = EventTopic.<TestEvent>of();
+        
+        // the dispatchers are hidden classes, which only the overlay for 17+ defines
+        val spec = System.getProperty("java.specification.version");
+        val compiles = !spec.startsWith("1.") && Integer.parseInt(spec) >= 17;
+        
+        val visit = new int[10];
+        val regs = new ArrayList<EventBus.Registration<Integer>>();
+        for (int i = 0; i < visit.length; ++i) {
+            val index = i;
+            regs.add(bus.register(topic, e -> ++visit[index]));
+        }
+        
+        val frames = new StackTraceElement[][]{ null };
+        bus.register(topic, e -> frames[0] = new Throwable().getStackTrace());
+        
+        // the snapshot is compiled on the parallel pool, and a later post picks the dispatcher up
+        int posts = 0;
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        do {
+            bus.post(topic, new TestEvent());
+            ++posts;
+        } while (compiles && !isCompiled(frames[0]) && System.nanoTime() < deadline);
+        
+        Assertions.assertEquals(compiles, isCompiled(frames[0]), "Compiled state mismatch.");
+        for (val it : visit) Assertions.assertEquals(posts, it, "Visit count mismatch.");
+        
+        regs.get(9).setActive(false);
+        bus.post(topic, new TestEvent());
+        
+        Assertions.assertEquals(posts + 1, visit[8], "Visit count mismatch. (active)");
+        Assertions.assertEquals(posts, visit[9], "Visit count mismatch. (inactive)");
+    }
+    
+    // the frames of hidden classes are left out, so a compiled post calls the listener straight from
+    // the compiled snapshot, rather than from the loop of its superclass
+    private static boolean isCompiled(final StackTraceElement[] frames) {
+        return frames[1].getClassName().endsWith("CompiledSnapshotList");
+    }
+    
+    @Test
+    void testMetrics() throws InterruptedException {
+        val metrics = new DispatchMetrics();
+        val bus = EventBus.builder(PhaseManager.builderComparable("default")).metrics(metrics).build();
+        val topic = EventTopic.<TestEvent>of();
+        
+        val slow = bus.register(
+          topic,
+          e -> {
+              val until = System.nanoTime() + 1_000_000;
+              while (System.nanoTime() < until) ;
+          }
+        );
+        val failing = bus.register(
+          topic,
+          "later",
+          e -> {
+              throw new RuntimeException();
+          }
+        );
+        bus.getPhases().link("default", "later");
+        
+        failing.setActive(false);
+        for (int i = 0; i < 10; ++i) bus.post(topic, new TestEvent());
+        
+        failing.setActive(true);
+        Assertions.assertThrows(RuntimeException.class, () -> bus.post(topic, new TestEvent()));
+        Assertions.assertNotNull(bus.postAndCatch(topic, new TestEvent()), "[bus.postAndCatch(topic, ...)] should fail.");
+        
+        val stats = metrics.getTopic(topic);
+        Assertions.assertNotNull(stats, "[metrics.getTopic(topic)] should not be null.");
+        Assertions.assertEquals(12, stats.getPostCount(), "Post count mismatch.");
+        Assertions.assertEquals(1, stats.getErrorCount(), "Error count mismatch.");
+        Assertions.assertTrue(stats.getRebuildCount() >= 1, "Rebuild count mismatch.");
+        
+        val latency = stats.getListeners().get(slow);
+        Assertions.assertNotNull(latency, "Latency histogram of [slow] should not be null.");
+        Assertions.assertEquals(12, latency.getCount(), "Latency count mismatch.");
+        Assertions.assertTrue(latency.getPercentileNanos(50) >= 1_000_000, "Latency percentile mismatch.");
+        Assertions.assertTrue(latency.getMaxNanos() <= latency.getTotalNanos(), "Latency maximum mismatch.");
+        
+        val failed = stats.getListeners().get(failing);
+        Assertions.assertNotNull(failed, "Latency histogram of [failing] should not be null.");
+        Assertions.assertEquals(2, failed.getCount(), "Latency count mismatch. (inactive listener)");
+        
+        Assertions.assertEquals(12, metrics.getPostCount(), "Total post count mismatch.");
+        Assertions.assertEquals(2, metrics.getListenerP99Nanos().size(), "Listener count mismatch.");
+        
+        val parallel = EventTopic.<TestEvent>of();
+        bus.getPhases().setDelivery("parallel", PhaseManager.Delivery.PARALLEL);
+        for (int i = 0; i < 2; ++i) bus.register(parallel, "parallel", e -> { });
+        bus.post(parallel, new TestEvent());
+        
+        val parallelStats = metrics.getTopic(parallel);
+        Assertions.assertNotNull(parallelStats, "[metrics.getTopic(parallel)] should not be null.");
+        Assertions.assertEquals(1, parallelStats.getPostCount(), "Post count mismatch. (parallel phase)");
+        Assertions.assertEquals(2, parallelStats.getListeners().size(), "Listener count mismatch. (parallel phase)");
+        for (val it : parallelStats.getListeners().values()) {
+            Assertions.assertEquals(1, it.getCount(), "Latency count mismatch. (parallel phase)");
+        }
+        
+        // topics of the same name are counted apart
+        val same = Arrays.asList(EventTopic.<TestEvent>of("same"), EventTopic.<TestEvent>of("same"));
+        for (val it : same) bus.post(it, new TestEvent());
+        val labels = new ArrayList<String>();
+        for (val it : same) labels.add(Objects.requireNonNull(metrics.getTopic(it)).getLabel());
+        Assertions.assertNotEquals(labels.get(0), labels.get(1), "Labels of topics with the same name should differ.");
+        for (val it : labels) Assertions.assertEquals(1L, metrics.getPostCounts().get(it), "Post count mismatch. (same name)");
+        
+        // the statistics of reclaimed ad-hoc topics go with them
+        for (int i = 0; i < 1000; ++i) bus.post(EventTopic.<TestEvent>of(), new TestEvent());
+        for (int i = 0; i < 50 && metrics.getPostCounts().size() > 500; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(metrics.getPostCounts().size() <= 500, "Statistics of reclaimed topics should be dropped.");
+    }
+    
+    @Test
+    void testInterceptors() {
+        val bus = EventBus.create("default");
+        val root = EventTopic.<TestEvent>of();
+        val child = EventTopic.<TestEvent>of(root);
+        val other = EventTopic.<TestEvent>of();
+        val trace = new ArrayList<String>();
+        
+        val reg = bus.register(root, e -> trace.add("listener"));
+        bus.register(other, e -> trace.add("other"));
+        
+        val local = new DispatchInterceptor() {
+            @Override
+            public void beforePost(final EventTopic<?> topic, final Object event) {
+                trace.add("post " + (topic == child ? "child" : topic == root ? "root" : topic));
+            }
+            
+            @Override
+            public void afterInvoke(
+              final EventTopic<?> topic,
+              final EventBus.Registration<?> registration,
+              final Object event,
+              final long nanos,
+              final @Nullable Throwable failure
+            ) {
+                trace.add(registration == reg ? "invoked" : failure != null ? "threw" : "unknown");
+            }
+        };
+        val global = new DispatchInterceptor() {
+            @Override
+            public void afterPost(final EventTopic<?> topic, final Object event, final @Nullable Throwable failure) {
+                trace.add(failure == null ? "done" : "failed");
+            }
+        };
+        
+        Assertions.assertEquals("SnapshotListImpl", bus.getSnapshot(child).getClass().getSimpleName(), "Snapshot type mismatch.");
+        bus.addInterceptor(root, local);
+        bus.post(child, new TestEvent());
+        bus.post(other, new TestEvent());
+        Assertions.assertEquals(Arrays.asList("post child", "listener", "invoked", "other"), trace, "Trace mismatch.");
+        Assertions.assertEquals("SnapshotListImpl", bus.getSnapshot(other).getClass().getSimpleName(), "Snapshot type mismatch. (other topic)");
+        
+        // a keyed post is reported as a post to its topic, not to the subtopic private to the key
+        trace.clear();
+        bus.register(root, "key", "default", e -> trace.add("keyed"));
+        bus.post(root, "key", new TestEvent());
+        Assertions.assertEquals("post root", trace.get(0), "Intercepted topic mismatch. (keyed post)");
+        Assertions.assertTrue(trace.contains("keyed"), "Keyed listener should be invoked.");
+        
+        trace.clear();
+        bus.addInterceptor(global);
+        bus.getPhases().link("default", "later");
+        bus.register(
+          root,
+          "later",
+          e -> {
+              throw new RuntimeException();
+          }
+        );
+        Assertions.assertNotNull(bus.postAndCatch(root, new TestEvent()), "[bus.postAndCatch(root, ...)] should fail.");
+        bus.post(other, new TestEvent());
+        Assertions.assertEquals(
+          Arrays.asList("post root", "listener", "invoked", "threw", "failed", "other", "done"),
+          trace,
+          "Trace mismatch. (global interceptor)"
+        );
+        
+        Assertions.assertTrue(bus.removeInterceptor(root, local), "[bus.removeInterceptor(root, local)] should succeed.");
+        Assertions.assertTrue(bus.removeInterceptor(global), "[bus.removeInterceptor(global)] should succeed.");
+        Assertions.assertFalse(bus.removeInterceptor(global), "[bus.removeInterceptor(global)] should fail once removed.");
+        Assertions.assertEquals("SnapshotListImpl", bus.getSnapshot(child).getClass().getSimpleName(), "Snapshot type mismatch. (removed)");
+    }
+    
+    @Test
+    void testPostAsync() throws Exception {
+        val bus = EventBus.create(0);
+        bus.getPhases().link(0, 1);
+        
+        val executor = Executors.newFixedThreadPool(2);
+        try {
+            val list = Collections.synchronizedList(new ArrayList<Integer>());
+            val latch = new CountDownLatch(1);
+            
+            bus.register(TestEvent.class, 1, e -> list.add(1));
+            bus.register(
+              TestEvent.class, 0, e -> {
+                  try {
+                      latch.await();
+                  } catch (InterruptedException ex) {
+                      throw new RuntimeException(ex);
+                  }
+                  list.add(0);
+              }
+            );
+            
+            val event = new TestEvent();
+            val future = bus.postAsync(event, executor);
+            Assertions.assertFalse(future.isDone(), "Async post must not run on the posting thread.");
+            
+            latch.countDown();
+            Assertions.assertSame(event, future.get(10, TimeUnit.SECONDS), "Async post must complete with the event.");
+            Assertions.assertEquals(Arrays.asList(0, 1), list, "Visit order mismatch.");
+            
+            val reg = bus.register(
+              TestEvent.class, 0, e -> {
+                  throw new IllegalStateException();
+              }
+            );
+            
+            val failed = bus.postAsync(new TestEvent(), executor);
+            val thrown = Assertions.assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(EventException.class, thrown.getCause(), "Async post must fail with an EventException.");
+            Assertions.assertEquals(reg, ((EventException) thrown.getCause()).getError().getRegistration(), "[error.getRegistration()] mismatch.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void testParallelDelivery() throws Exception {
+        val pool = new ForkJoinPool(2);
+        try {
+            val bus = EventBus.builder(PhaseManager.builderComparable(0)).parallelPool(pool).build();
+            bus.getPhases().link(0, 1);
+            bus.getPhases().setDelivery(0, PhaseManager.Delivery.PARALLEL);
+            
+            Assertions.assertEquals(PhaseManager.Delivery.PARALLEL, bus.getPhases().getDelivery(0), "[getDelivery(0)] mismatch.");
+            Assertions.assertEquals(PhaseManager.Delivery.SEQUENTIAL, bus.getPhases().getDelivery(1), "[getDelivery(1)] mismatch.");
+            
+            val latch = new CountDownLatch(2);
+            val met = Collections.synchronizedList(new ArrayList<Boolean>());
+            val after = new long[]{ -1 };
+            
+            for (int i = 0; i < 2; ++i) {
+                bus.register(
+                  TestEvent.class, 0, e -> {
+                      latch.countDown();
+                      try {
+                          met.add(latch.await(10, TimeUnit.SECONDS));
+                      } catch (InterruptedException ex) {
+                          throw new RuntimeException(ex);
+                      }
+                  }
+                );
+            }
+            bus.register(TestEvent.class, 1, e -> after[0] = latch.getCount());
+            
+            bus.post(new TestEvent());
+            
+            Assertions.assertEquals(Arrays.asList(true, true), met, "Listeners of a parallel phase must run concurrently.");
+            Assertions.assertEquals(0, after[0], "Next phase must start after the parallel phase completed.");
+            
+            val posts = new AtomicInteger();
+            val invokes = new AtomicInteger();
+            bus.addInterceptor(new DispatchInterceptor() {
+                @Override
+                public void beforePost(final EventTopic<?> topic, final Object event) {
+                    posts.incrementAndGet();
+                }
+                
+                @Override
+                public void afterInvoke(
+                  final EventTopic<?> topic,
+                  final EventBus.Registration<?> registration,
+                  final Object event,
+                  final long nanos,
+                  final @Nullable Throwable failure
+                ) {
+                    invokes.incrementAndGet();
+                }
+            });
+            bus.post(new TestEvent());
+            Assertions.assertEquals(1, posts.get(), "Post count mismatch. (intercepted parallel phase)");
+            Assertions.assertEquals(3, invokes.get(), "Invoke count mismatch. (intercepted parallel phase)");
+            
+            val first = bus.register(
+              TestEvent.class, 0, e -> {
+                  throw new IllegalStateException();
+              }
+            );
+            bus.register(
+              TestEvent.class, 0, e -> {
+                  throw new IllegalArgumentException();
+              }
+            );
+            
+            val error = bus.postAndCatch(new TestEvent());
+            Assertions.assertNotNull(error, "Failing parallel phase must be reported.");
+            Assertions.assertEquals(first, error.getRegistration(), "[error.getRegistration()] mismatch.");
+            Assertions.assertEquals(2, error.getIndex(), "[error.getIndex()] mismatch.");
+            Assertions.assertThrows(IllegalStateException.class, () -> bus.post(new TestEvent()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    void testVirtualDelivery() {
+        val bus = EventBus.create(0);
+        bus.getPhases().link(0, 1);
+        bus.getPhases().setDelivery(0, PhaseManager.Delivery.VIRTUAL);
+        Assertions.assertEquals(PhaseManager.Delivery.VIRTUAL, bus.getPhases().getDelivery(0), "[getDelivery(0)] mismatch.");
+        
+        // before Java 21, the phase runs on the posting thread, so only the order can be checked
+        val spec = System.getProperty("java.specification.version");
+        val virtual = !spec.startsWith("1.") && Integer.parseInt(spec) >= 21;
+        
+        // more blocked listeners than any pool would have threads
+        val count = 200;
+        val latch = new CountDownLatch(count);
+        val met = new AtomicInteger();
+        val after = new long[]{ -1 };
+        
+        for (int i = 0; i < count; ++i) {
+            bus.register(
+              TestEvent.class, 0, e -> {
+                  latch.countDown();
+                  try {
+                      if (!virtual || latch.await(10, TimeUnit.SECONDS)) met.incrementAndGet();
+                  } catch (InterruptedException ex) {
+                      throw new RuntimeException(ex);
+                  }
+              }
+            );
+        }
+        bus.register(TestEvent.class, 1, e -> after[0] = met.get());
+        
+        bus.post(new TestEvent());
+        
+        Assertions.assertEquals(count, met.get(), "Listeners of a virtual phase must run concurrently.");
+        Assertions.assertEquals(count, after[0], "Next phase must start after the virtual phase completed.");
+        
+        val first = bus.register(
+          TestEvent.class, 0, e -> {
+              throw new IllegalStateException();
+          }
+        );
+        
+        val error = bus.postAndCatch(new TestEvent());
+        Assertions.assertNotNull(error, "Failing virtual phase must be reported.");
+        Assertions.assertEquals(first, error.getRegistration(), "[error.getRegistration()] mismatch.");
+        Assertions.assertThrows(IllegalStateException.class, () -> bus.post(new TestEvent()));
+    }
+    
     @Test
     void testSimpleTopic() {
         val bus = EventBus.create("default");